@@ -1,14 +1,97 @@
 package com.piblogchain.backend.config;
 
+import com.piblogchain.backend.resilience.GuardedRequestInterceptor;
+import com.piblogchain.backend.resilience.ResilienceRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Clientes HTTP salientes. Todos comparten un único {@link HttpClient} (pool de conexiones con
+ * keep-alive) y cada servicio externo tiene su propio timeout de lectura y su propio
+ * {@link DependencyGuard} (circuit breaker y límite de peticiones simultáneas), de modo que un
+ * upstream colgado no puede bloquear los hilos de Tomcat.
+ */
 @Configuration
 public class AppConfig {
 
+  public static final String OKX_CLIENT = "okxRestTemplate";
+  public static final String PI_CLIENT = "piRestTemplate";
+  public static final String PING_CLIENT = "pingRestTemplate";
+
+  private final ResilienceRegistry resilienceRegistry;
+
+  public AppConfig(ResilienceRegistry resilienceRegistry) {
+    this.resilienceRegistry = resilienceRegistry;
+  }
+
   @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
+  public HttpClient outboundHttpClient(@Value("${http.client.connect-timeout-ms:2000}") long connectTimeoutMs) {
+    return HttpClient.newBuilder()
+      .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+      .followRedirects(HttpClient.Redirect.NORMAL)
+      .build();
+  }
+
+  @Bean
+  @Primary
+  public RestTemplate restTemplate(
+    HttpClient outboundHttpClient,
+    @Value("${http.client.default.read-timeout-ms:5000}") long readTimeoutMs
+  ) {
+    return guardedRestTemplate(outboundHttpClient, "http-default", readTimeoutMs);
+  }
+
+  // Precio PI/USD de OKX
+  @Bean(OKX_CLIENT)
+  public RestTemplate okxRestTemplate(
+    HttpClient outboundHttpClient,
+    @Value("${http.client.okx.read-timeout-ms:3000}") long readTimeoutMs
+  ) {
+    return guardedRestTemplate(outboundHttpClient, ResilienceRegistry.OKX, readTimeoutMs);
+  }
+
+  // API de Pi Network (JWKS)
+  @Bean(PI_CLIENT)
+  public RestTemplate piRestTemplate(
+    HttpClient outboundHttpClient,
+    @Value("${http.client.pi.read-timeout-ms:5000}") long readTimeoutMs
+  ) {
+    return guardedRestTemplate(outboundHttpClient, ResilienceRegistry.PI_API, readTimeoutMs);
+  }
+
+  // Ping interno para mantener la instancia activa
+  @Bean(PING_CLIENT)
+  public RestTemplate pingRestTemplate(
+    HttpClient outboundHttpClient,
+    @Value("${http.client.ping.read-timeout-ms:10000}") long readTimeoutMs
+  ) {
+    return guardedRestTemplate(outboundHttpClient, ResilienceRegistry.PING, readTimeoutMs);
+  }
+
+  private RestTemplate guardedRestTemplate(HttpClient httpClient, String dependency, long readTimeoutMs) {
+    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+    RestTemplate restTemplate = new RestTemplate(requestFactory);
+    restTemplate.getInterceptors().add(new GuardedRequestInterceptor(resilienceRegistry.guard(dependency)));
+    restTemplate.getInterceptors().add((request, body, execution) -> {
+      try {
+        return execution.execute(request, body);
+      } catch (CancellationException e) {
+        // El timeout de lectura cancela la petición; se traduce a IOException para que
+        // RestTemplate la exponga como ResourceAccessException y el guard la cuente como fallo
+        throw new HttpTimeoutException("Read timeout calling " + request.getURI());
+      }
+    });
+    return restTemplate;
   }
 }
@@ -11,9 +11,14 @@ public class CloudinaryConfig {
   @Value("${cloudinary.url}")
   private String cloudinaryUrl;
 
+  // Timeout (segundos) de conexión y lectura del cliente HTTP de Cloudinary
+  @Value("${cloudinary.timeout-seconds:20}")
+  private int timeoutSeconds;
+
   @Bean
   public Cloudinary cloudinary() {
     Cloudinary cloudinary = new Cloudinary(cloudinaryUrl);
+    cloudinary.config.timeout = timeoutSeconds;
 
     return cloudinary;
   }
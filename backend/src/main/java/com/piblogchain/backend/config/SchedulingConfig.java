@@ -0,0 +1,58 @@
+package com.piblogchain.backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskSchedulerBuilder;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Planificadores de las tareas periódicas. Se declaran explícitamente porque el broker STOMP ya
+ * define su propio TaskScheduler y, sin estos beans, Spring Boot no crea el suyo y las tareas
+ * periódicas acaban en el planificador del broker.
+ * <p>
+ * {@code maintenance-*}: tareas @Scheduled (limpiezas, cola de correo, rate limit...), configurado
+ * con spring.task.scheduling.*.
+ * {@code keepalive-*}: ping interno, en su propio hilo para que una llamada lenta no retrase al resto.
+ * </p>
+ * <p>
+ * Con {@code spring.threads.virtual.enabled=true} ambos son {@link SimpleAsyncTaskScheduler}, como
+ * los que crearía Spring Boot: cada ejecución corre en un hilo virtual nuevo.
+ * </p>
+ */
+@Configuration
+public class SchedulingConfig {
+
+  public static final String TASK_SCHEDULER = "taskScheduler";
+  public static final String KEEPALIVE_SCHEDULER = "keepAliveTaskScheduler";
+
+  // Configurado con spring.task.scheduling.*
+  @Bean(name = TASK_SCHEDULER)
+  @ConditionalOnThreading(Threading.PLATFORM)
+  public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+    return builder.build();
+  }
+
+  // Mismo builder (apagado, personalizaciones) con un único hilo propio
+  @Bean(name = KEEPALIVE_SCHEDULER)
+  @ConditionalOnThreading(Threading.PLATFORM)
+  public ThreadPoolTaskScheduler keepAliveTaskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+    return builder.poolSize(1).threadNamePrefix("keepalive-").build();
+  }
+
+  @Bean(name = TASK_SCHEDULER)
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public SimpleAsyncTaskScheduler taskSchedulerVirtualThreads(SimpleAsyncTaskSchedulerBuilder builder) {
+    return builder.build();
+  }
+
+  // Un ping lento ya no retrasa al resto: cada ejecución tiene su propio hilo virtual
+  @Bean(name = KEEPALIVE_SCHEDULER)
+  @ConditionalOnThreading(Threading.VIRTUAL)
+  public SimpleAsyncTaskScheduler keepAliveTaskSchedulerVirtualThreads(SimpleAsyncTaskSchedulerBuilder builder) {
+    return builder.threadNamePrefix("keepalive-").build();
+  }
+}
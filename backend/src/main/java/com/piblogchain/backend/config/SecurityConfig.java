@@ -1,9 +1,13 @@
 package com.piblogchain.backend.config;
 
+import com.piblogchain.backend.dto.ArticlePage;
 import com.piblogchain.backend.security.JwtAuthenticationFilter;
+import com.piblogchain.backend.security.RateLimitFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -21,10 +25,12 @@ import java.util.List;
 public class SecurityConfig {
 
   private final JwtAuthenticationFilter jwtAuthenticationFilter;
+  private final RateLimitFilter rateLimitFilter;
 
   @Autowired
-  public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
+  public SecurityConfig(JwtAuthenticationFilter jwtAuthenticationFilter, RateLimitFilter rateLimitFilter) {
     this.jwtAuthenticationFilter = jwtAuthenticationFilter;
+    this.rateLimitFilter = rateLimitFilter;
   }
 
   @Bean
@@ -48,23 +54,25 @@ public class SecurityConfig {
         .requestMatchers(HttpMethod.POST, "/auth/pi-login").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/articles").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/articles/featured").permitAll()
+        .requestMatchers(HttpMethod.GET, "/api/articles/search").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/articles/{id:[\\d]+}").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/articles/category/**").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/categories/slug/**").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/categories").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/articles/promoted-videos").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/articles/promoted-videos/category/**").permitAll()
-        .requestMatchers(HttpMethod.GET,"/api/payments/slots").permitAll()
+        .requestMatchers(HttpMethod.GET,"/api/payments/slots", "/api/payments/slots/categories").permitAll()
         .requestMatchers(HttpMethod.POST, "/api/contact").permitAll()
         .requestMatchers(HttpMethod.POST, "/api/session-links").permitAll()
         .requestMatchers(HttpMethod.POST, "/api/session-links/sync").permitAll()
         .requestMatchers(HttpMethod.GET, "/api/session-links/status/**").permitAll()
         .requestMatchers("/api/price").permitAll()
         .requestMatchers(HttpMethod.GET, "/ws/**").permitAll()
-        .requestMatchers("/api/payments/create", "/api/payments/approve", "/api/payments/complete").hasAnyRole("USER", "ADMIN")
+        .requestMatchers("/api/payments/create", "/api/payments/approve", "/api/payments/complete", "/api/payments/cancel").hasAnyRole("USER", "ADMIN")
         .requestMatchers(HttpMethod.POST, "/api/payments/attach-article").hasAnyRole("USER", "ADMIN")
         .requestMatchers(HttpMethod.GET, "/api/articles/rejected").hasAnyRole("USER", "ADMIN")
         .requestMatchers("/api/categories/**").hasRole("ADMIN")
+        .requestMatchers("/actuator/**").hasRole("ADMIN")
         .requestMatchers(HttpMethod.GET, "/api/articles/status/**").hasAnyRole("USER", "ADMIN")
         .requestMatchers(HttpMethod.GET, "/api/payments/by-article/{articleId:[\\d]+}").hasAnyRole("USER", "ADMIN")
         .requestMatchers("/api/articles/**", "/api/upload-image").hasAnyRole("USER", "ADMIN")
@@ -75,12 +83,21 @@ public class SecurityConfig {
 
     http
       .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+      // Después del JWT para limitar por usuario cuando la petición está autenticada
+      .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
       .formLogin(form -> form.disable())
       .httpBasic(httpBasic -> httpBasic.disable());
 
     return http.build();
   }
 
+  // El filtro solo debe ejecutarse dentro de la cadena de seguridad, no además como filtro de servlet
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.setEnabled(false);
+    return registration;
+  }
 
   @Bean
   public CorsConfigurationSource corsConfigurationSource() {
@@ -92,6 +109,7 @@ public class SecurityConfig {
     ));
     configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     configuration.setAllowedHeaders(List.of("Authorization", "Content-Type"));
+    configuration.setExposedHeaders(List.of(ArticlePage.NEXT_CURSOR_HEADER, HttpHeaders.RETRY_AFTER));
     configuration.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -0,0 +1,93 @@
+package com.piblogchain.backend.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnóstico de hilos virtuales "pinned": cuando un hilo virtual se bloquea dentro de un bloque
+ * {@code synchronized} (o de código nativo) retiene su hilo portador y deja de escalar.
+ * <p>
+ * Solo se activa con {@code spring.threads.virtual.enabled=true}. Escucha el evento JFR
+ * {@code jdk.VirtualThreadPinned}, registra en el log los frames de nuestro código y cuenta los
+ * eventos en la métrica {@code jvm.threads.virtual.pinned}.
+ * </p>
+ * <p>
+ * Por lo mismo, los servicios que bloquean mientras esperan una consulta o a otro hilo (cachés y
+ * modelos de lectura en {@code services}) usan {@link java.util.concurrent.locks.ReentrantLock} o
+ * {@link java.util.concurrent.locks.ReentrantReadWriteLock} en lugar de {@code synchronized}.
+ * </p>
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+  private static final String APP_PACKAGE = "com.piblogchain";
+  private static final int MAX_FRAMES = 8;
+
+  private final Counter pinnedCounter;
+  private final Duration threshold;
+  private RecordingStream stream;
+
+  public VirtualThreadPinningMonitor(
+    MeterRegistry meterRegistry,
+    @Value("${app.virtual-threads.pinned-threshold-ms:20}") long thresholdMs
+  ) {
+    this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+      .description("Virtual threads that blocked while pinned to their carrier")
+      .register(meterRegistry);
+    this.threshold = Duration.ofMillis(thresholdMs);
+  }
+
+  @PostConstruct
+  void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    log.info("Virtual thread pinning monitor started (threshold {} ms)", threshold.toMillis());
+  }
+
+  @PreDestroy
+  void stop() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  private void onPinned(RecordedEvent event) {
+    pinnedCounter.increment();
+    if (event.getStackTrace() == null) {
+      log.warn("Virtual thread pinned for {} ms", event.getDuration().toMillis());
+      return;
+    }
+
+    // Se priorizan los frames de la aplicación, que son los que podemos corregir
+    List<RecordedFrame> frames = event.getStackTrace().getFrames();
+    List<RecordedFrame> appFrames = frames.stream()
+      .filter(frame -> frame.getMethod().getType().getName().startsWith(APP_PACKAGE))
+      .toList();
+    String location = (appFrames.isEmpty() ? frames : appFrames).stream()
+      .limit(MAX_FRAMES)
+      .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+      .collect(Collectors.joining(" <- "));
+    log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), location);
+  }
+}
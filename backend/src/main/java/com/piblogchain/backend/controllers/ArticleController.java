@@ -2,24 +2,39 @@ package com.piblogchain.backend.controllers;
 
 import com.cloudinary.Cloudinary;
 import com.piblogchain.backend.dto.ArticleDTO;
+import com.piblogchain.backend.dto.ArticlePage;
+import com.piblogchain.backend.dto.ArticleSummaryDTO;
 import com.piblogchain.backend.enums.ArticleStatus;
 import com.piblogchain.backend.enums.PromoteType;
 import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.resilience.DependencyGuard;
+import com.piblogchain.backend.resilience.DependencyUnavailableException;
+import com.piblogchain.backend.resilience.ResilienceRegistry;
 import com.piblogchain.backend.services.ArticleService;
+import com.piblogchain.backend.services.CategoryCatalog;
+import com.piblogchain.backend.utils.CompressedResponseCache;
+import com.piblogchain.backend.utils.ConditionalGet;
 import com.piblogchain.backend.utils.SecurityUtils;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 
@@ -27,13 +42,28 @@ import java.util.Optional;
 @RequestMapping("/api")
 public class ArticleController {
 
+  // Articles and promotions change on every edit or payment, so clients always revalidate (a 304 when unchanged)
+  private static final CacheControl ARTICLES_CACHE = CacheControl.noCache().cachePublic();
+
   private final ArticleService articleService;
   private final Cloudinary cloudinary;
+  private final DependencyGuard cloudinaryGuard;
+  private final CompressedResponseCache compressedResponses;
+  private final CategoryCatalog categoryCatalog;
 
   @Autowired
-  public ArticleController(ArticleService articleService, Cloudinary cloudinary) {
+  public ArticleController(
+    ArticleService articleService,
+    Cloudinary cloudinary,
+    ResilienceRegistry resilienceRegistry,
+    CompressedResponseCache compressedResponses,
+    CategoryCatalog categoryCatalog
+  ) {
     this.articleService = articleService;
     this.cloudinary = cloudinary;
+    this.cloudinaryGuard = resilienceRegistry.guard(ResilienceRegistry.CLOUDINARY);
+    this.compressedResponses = compressedResponses;
+    this.categoryCatalog = categoryCatalog;
   }
 
   @PostMapping("/articles")
@@ -51,19 +81,46 @@ public class ArticleController {
     }
   }
 
-  @Operation(summary = "Get all published articles")
+  @Operation(summary = "Get published articles, newest first. The next page cursor is returned in the X-Next-Cursor header")
   @GetMapping("/articles")
-  public ResponseEntity<List<Article>> getPublicPublishedArticles() {
-    List<Article> articles = articleService.getArticlesByStatus(ArticleStatus.PUBLISHED);
-    return ResponseEntity.ok(articles);
+  public ResponseEntity<List<ArticleSummaryDTO>> getPublicPublishedArticles(
+    @RequestParam(required = false) String cursor,
+    @RequestParam(defaultValue = "20") int limit,
+    WebRequest request
+  ) {
+    String etag = ConditionalGet.etag("articles", articleService.getArticlesVersion());
+    return ConditionalGet.respond(request, etag, ARTICLES_CACHE, () -> {
+      ArticlePage<ArticleSummaryDTO> page = articleService.getPublishedArticlesPage(cursor, limit);
+      ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+      if (page.nextCursor() != null) {
+        response.header(ArticlePage.NEXT_CURSOR_HEADER, page.nextCursor());
+      }
+      return response.body(page.items());
+    });
+  }
+
+  @Operation(summary = "Search published articles by title, description, company, app and content, best match first")
+  @GetMapping("/articles/search")
+  public ResponseEntity<List<ArticleSummaryDTO>> searchArticles(
+    @RequestParam("q") String query,
+    @RequestParam(defaultValue = "20") int limit,
+    WebRequest request
+  ) {
+    // The index ranks, the card columns come from the article list
+    String etag = ConditionalGet.etag("search", articleService.getSearchVersion(), articleService.getArticlesVersion());
+    return ConditionalGet.respond(request, etag, ARTICLES_CACHE,
+      () -> ResponseEntity.ok(articleService.searchPublishedArticles(query, limit)));
   }
 
-  @Operation(summary = "Get an article by ID")
+  @Operation(summary = "Get an article by ID", responses = @ApiResponse(responseCode = "200",
+    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = Article.class))))
   @GetMapping("/articles/{id}")
-  public ResponseEntity<Article> getArticleById(@PathVariable Long id) {
-    return articleService.getArticleById(id)
-      .map(ResponseEntity::ok)
-      .orElseGet(() -> ResponseEntity.notFound().build());
+  public ResponseEntity<byte[]> getArticleById(@PathVariable Long id, WebRequest request) {
+    String etag = ConditionalGet.etag("article", id, articleService.getArticleVersion(id));
+    // Already serialized by the article cache
+    return ConditionalGet.respond(request, etag, ARTICLES_CACHE, () -> articleService.getArticleDetailJson(id)
+      .map(json -> ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(json))
+      .orElseGet(() -> ResponseEntity.notFound().build()));
   }
 
   @PutMapping("/articles/{id}/submit")
@@ -120,17 +177,17 @@ public class ArticleController {
 
   @GetMapping("/articles/drafts")
   @Operation(summary = "Get user's draft articles", security = @SecurityRequirement(name = "BearerAuth"))
-  public ResponseEntity<List<Article>> getDrafts() {
+  public ResponseEntity<List<ArticleSummaryDTO>> getDrafts() {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     String username = auth.getName();
-    List<Article> drafts = articleService.getDraftsByUser(username);
+    List<ArticleSummaryDTO> drafts = articleService.getDraftsByUser(username);
     return ResponseEntity.ok(drafts);
   }
 
 
   @GetMapping("/articles/pending")
   @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-  public ResponseEntity<List<Article>> getPendingArticles() {
+  public ResponseEntity<List<ArticleSummaryDTO>> getPendingArticles() {
     Authentication auth = SecurityContextHolder.getContext().getAuthentication();
     String username = auth.getName();
 
@@ -157,7 +214,7 @@ public class ArticleController {
   public ResponseEntity<String> deleteImage(@PathVariable String publicId) {
     try {
       Map<String, String> options = new HashMap<>();
-      Map result = cloudinary.uploader().destroy(publicId, options);
+      Map result = cloudinaryGuard.call(() -> cloudinary.uploader().destroy(publicId, options));
       System.out.println("Resultado de Cloudinary: " + result);
 
       String deleteResult = (String) result.get("result");
@@ -166,6 +223,8 @@ public class ArticleController {
       } else {
         return ResponseEntity.status(400).body("No se pudo eliminar la imagen: " + deleteResult);
       }
+    } catch (DependencyUnavailableException e) {
+      return ResponseEntity.status(503).body("Cloudinary no disponible: " + e.getMessage());
     } catch (Exception e) {
       return ResponseEntity.status(500).body("Error al eliminar la imagen: " + e.getMessage());
     }
@@ -196,10 +255,10 @@ public class ArticleController {
   @DeleteMapping("/cleanup/video/{publicId}")
   public ResponseEntity<Map<String, String>> deleteVideo(@PathVariable String publicId) {
     try {
-      Map<String, Object> result = cloudinary.uploader().destroy(
+      Map<String, Object> result = cloudinaryGuard.call(() -> cloudinary.uploader().destroy(
         publicId,
         Map.of("resource_type", "video")
-      );
+      ));
 
       String deleteResult = (String) result.get("result");
 
@@ -208,6 +267,8 @@ public class ArticleController {
       } else {
         return ResponseEntity.status(400).body(Map.of("error", "No se pudo eliminar el video: " + deleteResult));
       }
+    } catch (DependencyUnavailableException e) {
+      return ResponseEntity.status(503).body(Map.of("error", "Cloudinary no disponible: " + e.getMessage()));
     } catch (Exception e) {
       return ResponseEntity.status(500).body(Map.of("error", "Error al eliminar el video: " + e.getMessage()));
     }
@@ -215,9 +276,10 @@ public class ArticleController {
 
 
   @GetMapping("/articles/category/{slug}")
-  public ResponseEntity<List<Article>> getArticlesByCategory(@PathVariable String slug) {
-    List<Article> articles = articleService.getArticlesByCategorySlug(slug);
-    return ResponseEntity.ok(articles);
+  public ResponseEntity<List<ArticleSummaryDTO>> getArticlesByCategory(@PathVariable String slug, WebRequest request) {
+    String etag = ConditionalGet.etag("articles", articleService.getArticlesVersion());
+    return ConditionalGet.respond(request, etag, ARTICLES_CACHE,
+      () -> ResponseEntity.ok(articleService.getArticlesByCategorySlug(slug)));
   }
 
   @PutMapping("/articles/{id}/reject")
@@ -234,48 +296,48 @@ public class ArticleController {
 
   @GetMapping("/articles/rejected")
   @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
-  public ResponseEntity<List<Article>> getRejectedArticles() {
+  public ResponseEntity<List<ArticleSummaryDTO>> getRejectedArticles() {
     String username = SecurityContextHolder.getContext().getAuthentication().getName();
-    List<Article> articles = articleService.getRejectedArticlesByUser(username);
+    List<ArticleSummaryDTO> articles = articleService.getRejectedArticlesByUser(username);
     return ResponseEntity.ok(articles);
   }
 
   @GetMapping("/articles/promoted-videos")
-  public ResponseEntity<List<String>> getPromotedVideosByType(@RequestParam("type") String type) {
+  public ResponseEntity<?> getPromotedVideosByType(@RequestParam("type") String type, WebRequest request) {
+    PromoteType promoteType;
     try {
-      PromoteType promoteType = PromoteType.valueOf(type.toUpperCase());
-
-      List<Article> articles = switch (promoteType) {
-        case MAIN_SLIDER -> articleService.getPromotedVideosForMainSlider();
-        case CATEGORY_SLIDER -> throw new IllegalArgumentException("Use /promoted-videos/category/{slug} for CATEGORY_SLIDER");
-
-        default -> List.of();
-      };
-
-      List<String> videoUrls = articles.stream()
-        .map(Article::getPromoVideo)
-        .toList();
-
-      return ResponseEntity.ok(videoUrls);
-
+      promoteType = PromoteType.valueOf(type.toUpperCase());
     } catch (IllegalArgumentException e) {
       return ResponseEntity.badRequest().body(List.of("Invalid promote type: " + type));
     }
+    if (promoteType == PromoteType.CATEGORY_SLIDER) {
+      // Use /promoted-videos/category/{slug} for CATEGORY_SLIDER
+      return ResponseEntity.badRequest().body(List.of("Invalid promote type: " + type));
+    }
+
+    String etag = ConditionalGet.etag("promotions", articleService.getPromotionsVersion());
+    return compressedResponses.json(request, "promoted-videos:" + promoteType, etag, ARTICLES_CACHE,
+      () -> switch (promoteType) {
+        case MAIN_SLIDER -> articleService.getPromotedVideosForMainSlider();
+        default -> List.of();
+      });
   }
 
   @GetMapping("/articles/promoted-videos/category/{slug}")
-  public ResponseEntity<List<String>> getPromotedVideosByCategory(@PathVariable String slug) {
-    List<String> videoUrls = articleService.getPromotedVideosByCategorySlug(slug).stream()
-      .map(Article::getPromoVideo)
-      .toList();
-
-    return ResponseEntity.ok(videoUrls);
+  public ResponseEntity<byte[]> getPromotedVideosByCategory(@PathVariable String slug, WebRequest request) {
+    String etag = ConditionalGet.etag("promotions", articleService.getPromotionsVersion());
+    // Only known categories get a cache entry, so arbitrary slugs in the URL cannot fill the cache
+    String key = categoryCatalog.findBySlug(slug)
+      .map(category -> "promoted-videos:category:" + category.getSlug().toLowerCase(Locale.ROOT))
+      .orElse(null);
+    return compressedResponses.json(request, key, etag,
+      ARTICLES_CACHE, () -> articleService.getPromotedVideosByCategorySlug(slug));
   }
 
   @GetMapping("/articles/featured")
-  public ResponseEntity<List<ArticleDTO>> getFeaturedArticles() {
-    List<ArticleDTO> featured = articleService.getFeaturedArticlesRotated();
-    return ResponseEntity.ok(featured);
+  public ResponseEntity<byte[]> getFeaturedArticles(WebRequest request) {
+    String etag = ConditionalGet.etag("promotions", articleService.getPromotionsVersion());
+    return compressedResponses.json(request, "featured", etag, ARTICLES_CACHE, articleService::getFeaturedArticlesRotated);
   }
 
 
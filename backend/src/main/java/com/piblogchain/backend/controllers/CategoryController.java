@@ -3,12 +3,16 @@ package com.piblogchain.backend.controllers;
 import com.piblogchain.backend.dto.CategoryDTO;
 import com.piblogchain.backend.models.Category;
 import com.piblogchain.backend.services.CategoryService;
+import com.piblogchain.backend.utils.CompressedResponseCache;
+import com.piblogchain.backend.utils.ConditionalGet;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,11 +21,16 @@ import java.util.List;
 @SecurityRequirement(name = "BearerAuth")
 public class CategoryController {
 
+  // Revalidated on every request (a 304 when unchanged) so admin edits show up at once
+  private static final CacheControl CATEGORIES_CACHE = CacheControl.noCache().cachePublic();
+
   private final CategoryService categoryService;
+  private final CompressedResponseCache compressedResponses;
 
   @Autowired
-  public CategoryController(CategoryService categoryService) {
+  public CategoryController(CategoryService categoryService, CompressedResponseCache compressedResponses) {
     this.categoryService = categoryService;
+    this.compressedResponses = compressedResponses;
   }
 
   @PreAuthorize("hasRole('ADMIN')")
@@ -47,15 +56,17 @@ public class CategoryController {
   }
 
   @GetMapping
-  public ResponseEntity<List<Category>> getAllCategories() {
-    return ResponseEntity.ok(categoryService.getAllCategories());
+  public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+    String etag = ConditionalGet.etag("categories", categoryService.getCategoriesVersion());
+    return compressedResponses.json(request, "categories", etag, CATEGORIES_CACHE, categoryService::getAllCategories);
   }
 
   @GetMapping("/slug/{slug}")
-  public ResponseEntity<Category> getCategoryBySlug(@PathVariable String slug) {
-    return categoryService.getCategoryBySlug(slug)
+  public ResponseEntity<Category> getCategoryBySlug(@PathVariable String slug, WebRequest request) {
+    String etag = ConditionalGet.etag("categories", categoryService.getCategoriesVersion());
+    return ConditionalGet.respond(request, etag, CATEGORIES_CACHE, () -> categoryService.getCategoryBySlug(slug)
       .map(ResponseEntity::ok)
-      .orElse(ResponseEntity.notFound().build());
+      .orElse(ResponseEntity.notFound().build()));
   }
 
 }
@@ -1,7 +1,7 @@
 package com.piblogchain.backend.controllers;
 
 import com.piblogchain.backend.dto.ContactRequest;
-import com.piblogchain.backend.services.EmailService;
+import com.piblogchain.backend.services.ContactMailQueue;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,27 +19,21 @@ import java.util.Map;
 @RequestMapping("/api/contact")
 public class ContactController {
   private static final Logger logger = LoggerFactory.getLogger(ContactController.class);
-  private final EmailService emailService;
+  private final ContactMailQueue contactMailQueue;
 
-  public ContactController(EmailService emailService) {
-    this.emailService = emailService;
+  public ContactController(ContactMailQueue contactMailQueue) {
+    this.contactMailQueue = contactMailQueue;
   }
 
   @PostMapping
   public ResponseEntity<Map<String, String>> sendMessage(@Valid @RequestBody ContactRequest request) {
     logger.info("Recibida solicitud POST a /api/contact: name={}, email={}, message={}",
       request.getName(), request.getEmail(), request.getMessage());
-    try {
-      emailService.sendEmail(request);
-      logger.info("Correo enviado exitosamente");
-      Map<String, String> response = new HashMap<>();
-      response.put("message", "Message sent");
-      return ResponseEntity.ok(response);
-    } catch (Exception e) {
-      logger.error("Error al enviar correo: {}", e.getMessage(), e);
-      Map<String, String> errorResponse = new HashMap<>();
-      errorResponse.put("error", "Error sending message: " + e.getMessage());
-      return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-    }
+    // El envío SMTP se hace en segundo plano; el mensaje queda guardado hasta que se entrega
+    contactMailQueue.enqueue(request);
+    logger.info("Correo encolado para envío");
+    Map<String, String> response = new HashMap<>();
+    response.put("message", "Message accepted");
+    return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
   }
 }
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -66,6 +67,15 @@ public class PaymentController {
 
 
 
+  @PostMapping("/cancel")
+  public ResponseEntity<?> cancelPayment(
+    @RequestParam String paymentId,
+    @AuthenticationPrincipal String principal
+  ) {
+    paymentService.cancelPayment(paymentId, principal);
+    return ResponseEntity.ok().build();
+  }
+
   @PostMapping("/complete-with-article")
   public ResponseEntity<?> completeWithArticle(@RequestBody PaymentCompleteRequest request) {
     paymentService.completePayment(request);
@@ -112,6 +122,11 @@ public class PaymentController {
     return ResponseEntity.ok(availability);
   }
 
+  @GetMapping("/slots/categories")
+  public ResponseEntity<List<Map<String, Object>>> getCategorySlotInfo() {
+    return ResponseEntity.ok(paymentService.getCategorySlotAvailability());
+  }
+
   @PostMapping("/activate")
   @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
   public ResponseEntity<?> activatePlan(@RequestBody ActivatePlanRequest request) {
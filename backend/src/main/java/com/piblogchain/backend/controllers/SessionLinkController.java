@@ -4,23 +4,31 @@ import com.piblogchain.backend.models.User;
 import com.piblogchain.backend.services.SessionLinkService;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.security.Principal;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/session-links")
 public class SessionLinkController {
 
   private final SessionLinkService sessionLinkService;
+  private final long maxWaitSeconds;
 
   @Autowired
-  public SessionLinkController(SessionLinkService sessionLinkService) {
+  public SessionLinkController(
+    SessionLinkService sessionLinkService,
+    @Value("${session-links.long-poll.max-wait-seconds:30}") long maxWaitSeconds
+  ) {
     this.sessionLinkService = sessionLinkService;
+    this.maxWaitSeconds = maxWaitSeconds;
   }
 
   @PostMapping
@@ -43,10 +51,33 @@ public class SessionLinkController {
   }
 
 
+  // Con ?wait=N (segundos) la respuesta se mantiene abierta hasta que el código se sincroniza o vence N
   @GetMapping("/status/{code}")
-  public ResponseEntity<?> getStatus(@PathVariable String code) {
+  public DeferredResult<ResponseEntity<?>> getStatus(
+    @PathVariable String code,
+    @RequestParam(defaultValue = "0") long wait
+  ) {
+    long waitSeconds = Math.max(0, Math.min(wait, maxWaitSeconds));
+    DeferredResult<ResponseEntity<?>> result = waitSeconds > 0
+      ? new DeferredResult<>(TimeUnit.SECONDS.toMillis(waitSeconds), ResponseEntity.noContent().build())
+      : new DeferredResult<>();
+
+    // Se registra antes de consultar el estado para no perder una sincronización intermedia
+    if (waitSeconds > 0) {
+      Runnable stopWaiting = sessionLinkService.awaitLink(code, user -> result.setResult(linked(user)));
+      result.onCompletion(stopWaiting);
+    }
+
     Optional<User> user = sessionLinkService.getUserByCode(code);
-    return user.map(u -> ResponseEntity.ok(Map.of("username", u.getUsername())))
-      .orElseGet(() -> ResponseEntity.noContent().build());
+    if (user.isPresent()) {
+      result.setResult(linked(user.get()));
+    } else if (waitSeconds == 0) {
+      result.setResult(ResponseEntity.noContent().build());
+    }
+    return result;
+  }
+
+  private static ResponseEntity<?> linked(User user) {
+    return ResponseEntity.ok(Map.of("username", user.getUsername()));
   }
 }
@@ -0,0 +1,15 @@
+package com.piblogchain.backend.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * @param items      the page content
+ * @param nextCursor opaque cursor for the following page, or null when this is the last page
+ */
+public record ArticlePage<T>(List<T> items, String nextCursor) {
+
+  // Response header carrying nextCursor on the list endpoints
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+}
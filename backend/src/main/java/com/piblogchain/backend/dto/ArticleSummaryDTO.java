@@ -0,0 +1,145 @@
+package com.piblogchain.backend.dto;
+
+import com.piblogchain.backend.enums.ArticleStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * Card-sized view of an article used by the list endpoints. It is built directly by JPQL
+ * constructor expressions, so the MEDIUMTEXT content and the promotions are never loaded.
+ */
+public class ArticleSummaryDTO {
+
+  @Schema(description = "Unique identifier of the article", example = "1")
+  private Long id;
+
+  @Schema(description = "Name of the company", example = "TechCorp")
+  private String company;
+
+  @Schema(description = "Name of the app", example = "AppName")
+  private String app;
+
+  @Schema(description = "Title of the article", example = "An Amazing Article")
+  private String title;
+
+  @Schema(description = "Brief description of the article", example = "This article explains...")
+  private String description;
+
+  @Schema(description = "URL of the header image for the article")
+  private String headerImage;
+
+  @Schema(description = "Category of the article")
+  private CategoryDTO category;
+
+  @Schema(description = "Publication date of the article", example = "2025-03-16")
+  private LocalDate publishDate;
+
+  @Schema(description = "Status of the article", example = "PUBLISHED")
+  private ArticleStatus status;
+
+  @Schema(description = "Reason for rejection of the article")
+  private String rejectionReason;
+
+  public ArticleSummaryDTO() {}
+
+  // Used by the JPQL constructor expressions in ArticleRepository
+  public ArticleSummaryDTO(Long id, String company, String app, String title, String description,
+                           String headerImage, String categoryName, String categorySlug,
+                           LocalDate publishDate, ArticleStatus status, String rejectionReason) {
+    this.id = id;
+    this.company = company;
+    this.app = app;
+    this.title = title;
+    this.description = description;
+    this.headerImage = headerImage;
+    this.category = new CategoryDTO(categoryName, categorySlug);
+    this.publishDate = publishDate;
+    this.status = status;
+    this.rejectionReason = rejectionReason;
+  }
+
+  public Long getId() {
+    return id;
+  }
+
+  public void setId(Long id) {
+    this.id = id;
+  }
+
+  public String getCompany() {
+    return company;
+  }
+
+  public void setCompany(String company) {
+    this.company = company;
+  }
+
+  public String getApp() {
+    return app;
+  }
+
+  public void setApp(String app) {
+    this.app = app;
+  }
+
+  public String getTitle() {
+    return title;
+  }
+
+  public void setTitle(String title) {
+    this.title = title;
+  }
+
+  public String getDescription() {
+    return description;
+  }
+
+  public void setDescription(String description) {
+    this.description = description;
+  }
+
+  public String getHeaderImage() {
+    return headerImage;
+  }
+
+  public void setHeaderImage(String headerImage) {
+    this.headerImage = headerImage;
+  }
+
+  public CategoryDTO getCategory() {
+    return category;
+  }
+
+  public void setCategory(CategoryDTO category) {
+    this.category = category;
+  }
+
+  public String getCategorySlug() {
+    return category != null ? category.getSlug() : null;
+  }
+
+  public LocalDate getPublishDate() {
+    return publishDate;
+  }
+
+  public void setPublishDate(LocalDate publishDate) {
+    this.publishDate = publishDate;
+  }
+
+  public ArticleStatus getStatus() {
+    return status;
+  }
+
+  public void setStatus(ArticleStatus status) {
+    this.status = status;
+  }
+
+  public String getRejectionReason() {
+    return rejectionReason;
+  }
+
+  public void setRejectionReason(String rejectionReason) {
+    this.rejectionReason = rejectionReason;
+  }
+}
@@ -7,6 +7,7 @@ public class PaymentCreateRequest {
   private String username;
   private PlanType planType;
   private String paymentId; // ✅ nuevo campo
+  private String categorySlug; // opcional, solo para CATEGORY_SLIDER
 
   public PaymentCreateRequest() {
   }
@@ -40,4 +41,12 @@ public class PaymentCreateRequest {
   public void setPaymentId(String paymentId) {
     this.paymentId = paymentId;
   }
+
+  public String getCategorySlug() {
+    return categorySlug;
+  }
+
+  public void setCategorySlug(String categorySlug) {
+    this.categorySlug = categorySlug;
+  }
 }
@@ -0,0 +1,7 @@
+package com.piblogchain.backend.dto;
+
+/**
+ * Number of slider slots in use for a category, as returned by the slot aggregate queries.
+ */
+public record SlotUsage(String categorySlug, long usedSlots) {
+}
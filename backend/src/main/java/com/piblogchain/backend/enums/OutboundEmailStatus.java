@@ -0,0 +1,6 @@
+package com.piblogchain.backend.enums;
+
+public enum OutboundEmailStatus {
+  PENDING,
+  FAILED
+}
@@ -13,7 +13,13 @@ import com.piblogchain.backend.enums.PromoteType;
 
 
 @Entity
-@Table(name = "articles")
+@Table(
+  name = "articles",
+  indexes = {
+    @Index(name = "idx_articles_status_publish_date_id", columnList = "status, publish_date, id"),
+    @Index(name = "idx_articles_category_slug_status", columnList = "category_slug, status")
+  }
+)
 public class Article {
 
   @Id
@@ -111,12 +117,11 @@ public class Article {
   @Schema(description = "Reason for article rejection", example = "The article did not meet quality standards.")
   private String rejectionReason;
 
-  @OneToMany(mappedBy = "article", cascade = CascadeType.ALL, orphanRemoval = true)
-  private List<ArticlePromotion> promotions = new ArrayList<>();
-
+  // Única colección sobre article_promotions; usar las consultas *WithPromotions* del repositorio
+  // para cargarla junto a los artículos en una sola consulta
   @OneToMany(mappedBy = "article", cascade = CascadeType.ALL, orphanRemoval = true)
   @JsonManagedReference
-  private List<ArticlePromotion> activePlans = new ArrayList<>();
+  private List<ArticlePromotion> promotions = new ArrayList<>();
 
 
   // Constructor por defecto
@@ -137,7 +142,7 @@ public class Article {
     this.headerImageUploadDate = headerImageUploadDate;
     this.category = category; // Relación con Category
     this.categoryName = (category != null) ? category.getName() : null; // Asigna el nombre de la categoría
-    this.categorySlug = (category != null) ? category.getSlug() : null;
+    this.categorySlug = (category != null) ? Category.normalizeSlug(category.getSlug()) : null;
     this.content = content;
     this.publishDate = publishDate;
     this.promoVideo = promoVideo;
@@ -226,7 +231,7 @@ public class Article {
   }
 
   public void setCategorySlug(String categorySlug) {
-    this.categorySlug = categorySlug;
+    this.categorySlug = Category.normalizeSlug(categorySlug);
   }
 
   public Category getCategory() {
@@ -237,7 +242,7 @@ public class Article {
     this.category = category;
     // Opcional: Sincroniza categoryName con el nombre de la categoría si category no es null
     this.categoryName = (category != null) ? category.getName() : this.categoryName;
-    this.categorySlug = (category != null) ? category.getSlug() : this.categorySlug;
+    this.categorySlug = (category != null) ? Category.normalizeSlug(category.getSlug()) : this.categorySlug;
   }
 
   public String getContent() {
@@ -312,12 +317,4 @@ public class Article {
     this.promotions = promotions;
   }
 
-  public List<ArticlePromotion> getActivePlans() {
-    return activePlans;
-  }
-
-  public void setActivePlans(List<ArticlePromotion> activePlans) {
-    this.activePlans = activePlans;
-  }
-
 }
@@ -6,7 +6,13 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "article_promotions")
+@Table(
+  name = "article_promotions",
+  indexes = {
+    @Index(name = "idx_article_promotions_lookup", columnList = "article_id, promote_type, cancelled, expiration_at"),
+    @Index(name = "idx_article_promotions_slots", columnList = "promote_type, expiration_at, article_id")
+  }
+)
 public class ArticlePromotion {
 
   @Id
@@ -2,6 +2,7 @@ package com.piblogchain.backend.models;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 @Table(name = "categories")
@@ -40,10 +41,15 @@ public class Category {
 
   public Category(String name, String slug) {
     this.name = name;
-    this.slug = slug;
+    this.slug = normalizeSlug(slug);
     this.createdAt = LocalDateTime.now();
   }
 
+  // Los slugs se guardan en minúsculas: las consultas los comparan sin LOWER() y usan el índice
+  public static String normalizeSlug(String slug) {
+    return slug != null ? slug.toLowerCase(Locale.ROOT) : null;
+  }
+
   // Getters y setters
   public Long getId() {
     return id;
@@ -66,7 +72,7 @@ public class Category {
   }
 
   public void setSlug(String slug) {
-    this.slug = slug;
+    this.slug = normalizeSlug(slug);
   }
 
   public LocalDateTime getCreatedAt() {
@@ -0,0 +1,77 @@
+package com.piblogchain.backend.models;
+
+import com.piblogchain.backend.enums.OutboundEmailStatus;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mensaje de contacto pendiente de envío (spool persistente). Se borra al enviarse; los que agotan
+ * los reintentos quedan en estado FAILED para poder revisarlos.
+ */
+@Entity
+@Table(
+  name = "outbound_emails",
+  indexes = @Index(name = "idx_outbound_emails_due", columnList = "status, next_attempt_at")
+)
+public class OutboundEmail {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(nullable = false)
+  private String senderName;
+
+  @Column(nullable = false)
+  private String senderEmail;
+
+  @Column(columnDefinition = "TEXT", nullable = false)
+  private String message;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false)
+  private OutboundEmailStatus status;
+
+  private int attempts;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  // Mientras no caduca, un worker está enviando el mensaje y nadie más lo toma
+  private LocalDateTime claimedUntil;
+
+  @Column(length = 500)
+  private String lastError;
+
+  private LocalDateTime createdAt;
+
+  public OutboundEmail() {
+    this.createdAt = LocalDateTime.now();
+  }
+
+  public OutboundEmail(String senderName, String senderEmail, String message) {
+    this();
+    this.senderName = senderName;
+    this.senderEmail = senderEmail;
+    this.message = message;
+    this.status = OutboundEmailStatus.PENDING;
+    this.nextAttemptAt = this.createdAt;
+  }
+
+  public Long getId() { return id; }
+  public String getSenderName() { return senderName; }
+  public String getSenderEmail() { return senderEmail; }
+  public String getMessage() { return message; }
+  public OutboundEmailStatus getStatus() { return status; }
+  public void setStatus(OutboundEmailStatus status) { this.status = status; }
+  public int getAttempts() { return attempts; }
+  public void setAttempts(int attempts) { this.attempts = attempts; }
+  public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+  public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+  public LocalDateTime getClaimedUntil() { return claimedUntil; }
+  public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+  public String getLastError() { return lastError; }
+  public void setLastError(String lastError) { this.lastError = lastError; }
+  public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -26,6 +26,10 @@ public class Payment {
   @Column(name = "payment_id", unique = true)
   private String paymentId;
 
+  // Categoría cuyo slot de CATEGORY_SLIDER se reservó al crear el pago
+  @Column(name = "category_slug")
+  private String categorySlug;
+
 
   @ManyToOne
   @JoinColumn(name = "article_id")
@@ -118,4 +122,12 @@ public class Payment {
     this.paymentId = paymentId;
   }
 
+  public String getCategorySlug() {
+    return categorySlug;
+  }
+
+  public void setCategorySlug(String categorySlug) {
+    this.categorySlug = categorySlug;
+  }
+
 }
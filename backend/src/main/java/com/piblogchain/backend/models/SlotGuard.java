@@ -0,0 +1,39 @@
+package com.piblogchain.backend.models;
+
+import com.piblogchain.backend.enums.PromoteType;
+import jakarta.persistence.*;
+
+/**
+ * Fila de bloqueo por (tipo de promoción, categoría). Las reservas de slots la bloquean con
+ * SELECT ... FOR UPDATE para que el recuento y la inserción sean atómicos entre instancias.
+ */
+@Entity
+@Table(
+  name = "slot_guards",
+  uniqueConstraints = @UniqueConstraint(name = "uk_slot_guards_key", columnNames = {"promote_type", "category_slug"})
+)
+public class SlotGuard {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "promote_type", nullable = false)
+  private PromoteType promoteType;
+
+  // Vacío para MAIN_SLIDER
+  @Column(name = "category_slug", nullable = false)
+  private String categorySlug;
+
+  public SlotGuard() {}
+
+  public SlotGuard(PromoteType promoteType, String categorySlug) {
+    this.promoteType = promoteType;
+    this.categorySlug = categorySlug;
+  }
+
+  public Long getId() { return id; }
+  public PromoteType getPromoteType() { return promoteType; }
+  public String getCategorySlug() { return categorySlug; }
+}
@@ -0,0 +1,58 @@
+package com.piblogchain.backend.models;
+
+import com.piblogchain.backend.enums.PromoteType;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reserva temporal de un slot de slider, tomada al crear el pago y liberada al completarlo.
+ * Las reservas abandonadas dejan de contar al llegar a {@code expiresAt}.
+ */
+@Entity
+@Table(
+  name = "slot_leases",
+  indexes = @Index(name = "idx_slot_leases_key_expires", columnList = "promote_type, category_slug, expires_at")
+)
+public class SlotLease {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+
+  @Column(name = "payment_id", nullable = false, unique = true)
+  private String paymentId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "promote_type", nullable = false)
+  private PromoteType promoteType;
+
+  // Vacío para MAIN_SLIDER
+  @Column(name = "category_slug", nullable = false)
+  private String categorySlug;
+
+  @Column(name = "expires_at", nullable = false)
+  private LocalDateTime expiresAt;
+
+  private LocalDateTime createdAt;
+
+  public SlotLease() {
+    this.createdAt = LocalDateTime.now();
+  }
+
+  public SlotLease(String paymentId, PromoteType promoteType, String categorySlug, LocalDateTime expiresAt) {
+    this();
+    this.paymentId = paymentId;
+    this.promoteType = promoteType;
+    this.categorySlug = categorySlug;
+    this.expiresAt = expiresAt;
+  }
+
+  public Long getId() { return id; }
+  public String getPaymentId() { return paymentId; }
+  public PromoteType getPromoteType() { return promoteType; }
+  public String getCategorySlug() { return categorySlug; }
+  public LocalDateTime getExpiresAt() { return expiresAt; }
+  public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+  public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -1,10 +1,60 @@
 package com.piblogchain.backend.repositories;
 
+import com.piblogchain.backend.dto.SlotUsage;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
 import com.piblogchain.backend.models.ArticlePromotion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ArticlePromotionRepository extends JpaRepository<ArticlePromotion, Long> {
 
   List<ArticlePromotion> findByArticleId(Long articleId);
+
+  // Used slots: distinct articles in the given statuses with an unexpired promotion of the type
+  // (cancelled ones keep their slot)
+  @Query("""
+    SELECT COUNT(DISTINCT a.id) FROM ArticlePromotion p JOIN p.article a
+    WHERE p.promoteType = :type
+      AND a.status IN :statuses
+      AND (p.expirationAt IS NULL OR p.expirationAt > :now)
+    """)
+  long countUsedSlots(
+    @Param("type") PromoteType type,
+    @Param("statuses") Collection<ArticleStatus> statuses,
+    @Param("now") LocalDateTime now
+  );
+
+  @Query("""
+    SELECT COUNT(DISTINCT a.id) FROM ArticlePromotion p JOIN p.article a
+    WHERE p.promoteType = :type
+      AND a.status IN :statuses
+      AND a.categorySlug = :slug
+      AND (p.expirationAt IS NULL OR p.expirationAt > :now)
+    """)
+  long countUsedSlotsByCategorySlug(
+    @Param("type") PromoteType type,
+    @Param("statuses") Collection<ArticleStatus> statuses,
+    @Param("slug") String slug,
+    @Param("now") LocalDateTime now
+  );
+
+  @Query("""
+    SELECT new com.piblogchain.backend.dto.SlotUsage(a.categorySlug, COUNT(DISTINCT a.id))
+    FROM ArticlePromotion p JOIN p.article a
+    WHERE p.promoteType = :type
+      AND a.status IN :statuses
+      AND (p.expirationAt IS NULL OR p.expirationAt > :now)
+    GROUP BY a.categorySlug
+    """)
+  List<SlotUsage> countUsedSlotsPerCategory(
+    @Param("type") PromoteType type,
+    @Param("statuses") Collection<ArticleStatus> statuses,
+    @Param("now") LocalDateTime now
+  );
 }
@@ -1,16 +1,134 @@
 package com.piblogchain.backend.repositories;
 
+import com.piblogchain.backend.dto.ArticleSummaryDTO;
 import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
 import com.piblogchain.backend.models.Article;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ArticleRepository extends JpaRepository<Article, Long> {
 
-  List<Article> findByStatus(ArticleStatus status);
+  // Card columns only: no content, no promotions
+  String SUMMARY_SELECT = """
+    SELECT new com.piblogchain.backend.dto.ArticleSummaryDTO(
+      a.id, a.company, a.app, a.title, a.description, a.headerImage,
+      a.categoryName, a.categorySlug, a.publishDate, a.status, a.rejectionReason)
+    FROM Article a
+    """;
+
+  // Articles together with their promotions and category in a single query (no N+1)
+  @EntityGraph(attributePaths = {"promotions", "category"})
+  List<Article> findWithPromotionsByStatus(ArticleStatus status);
+
+  @EntityGraph(attributePaths = {"promotions", "category"})
+  List<Article> findWithPromotionsByStatusAndCreatedBy(ArticleStatus status, String createdBy);
+
+  @EntityGraph(attributePaths = {"promotions", "category"})
+  Optional<Article> findWithPromotionsById(Long id);
+
+  @Query(SUMMARY_SELECT + "WHERE a.status = :status ORDER BY a.publishDate DESC, a.id DESC")
+  List<ArticleSummaryDTO> findSummariesByStatus(@Param("status") ArticleStatus status);
+
+  @Query(SUMMARY_SELECT + """
+    WHERE a.status = :status AND a.createdBy = :createdBy
+    ORDER BY a.publishDate DESC, a.id DESC
+    """)
+  List<ArticleSummaryDTO> findSummariesByStatusAndCreatedBy(
+    @Param("status") ArticleStatus status,
+    @Param("createdBy") String createdBy
+  );
+
+  @Query(SUMMARY_SELECT + """
+    WHERE a.categorySlug = :slug AND a.status = :status
+    ORDER BY a.publishDate DESC, a.id DESC
+    """)
+  List<ArticleSummaryDTO> findSummariesByCategorySlugAndStatus(
+    @Param("slug") String slug,
+    @Param("status") ArticleStatus status
+  );
+
+  // Live promotion filter evaluated in SQL (backed by idx_article_promotions_lookup)
+  String LIVE_PROMOTION = """
+    EXISTS (
+      SELECT p.id FROM ArticlePromotion p
+      WHERE p.article = a
+        AND p.promoteType IN :types
+        AND p.cancelled IN :cancelled
+        AND (p.expirationAt IS NULL OR p.expirationAt > :now))
+    """;
+
+  @Query("SELECT a.promoVideo FROM Article a WHERE a.status = :status AND " + LIVE_PROMOTION + " ORDER BY a.id")
+  List<String> findPromotedVideoUrls(
+    @Param("status") ArticleStatus status,
+    @Param("types") Collection<PromoteType> types,
+    @Param("cancelled") Collection<Boolean> cancelled,
+    @Param("now") LocalDateTime now
+  );
+
+  @Query("SELECT a.promoVideo FROM Article a "
+    + "WHERE a.status = :status AND a.categorySlug = :slug AND " + LIVE_PROMOTION
+    + " ORDER BY a.id")
+  List<String> findPromotedVideoUrlsByCategorySlug(
+    @Param("status") ArticleStatus status,
+    @Param("slug") String slug,
+    @Param("types") Collection<PromoteType> types,
+    @Param("cancelled") Collection<Boolean> cancelled,
+    @Param("now") LocalDateTime now
+  );
+
+  @EntityGraph(attributePaths = {"promotions", "category"})
+  @Query("SELECT a FROM Article a WHERE a.status = :status AND " + LIVE_PROMOTION + " ORDER BY a.id")
+  List<Article> findWithPromotionsByLivePromotion(
+    @Param("status") ArticleStatus status,
+    @Param("types") Collection<PromoteType> types,
+    @Param("cancelled") Collection<Boolean> cancelled,
+    @Param("now") LocalDateTime now
+  );
+
+  // Keyset pagination: first page, newest first
+  @Query(SUMMARY_SELECT + "WHERE a.status = :status ORDER BY a.publishDate DESC, a.id DESC")
+  List<ArticleSummaryDTO> findSummaryPage(@Param("status") ArticleStatus status, Pageable pageable);
+
+  // Keyset pagination: rows strictly after the (publishDate, id) cursor
+  @Query(SUMMARY_SELECT + """
+    WHERE a.status = :status
+      AND (a.publishDate < :publishDate OR (a.publishDate = :publishDate AND a.id < :id))
+    ORDER BY a.publishDate DESC, a.id DESC
+    """)
+  List<ArticleSummaryDTO> findSummaryPageAfter(
+    @Param("status") ArticleStatus status,
+    @Param("publishDate") LocalDate publishDate,
+    @Param("id") Long id,
+    Pageable pageable
+  );
+
+  @Query(SUMMARY_SELECT + "WHERE a.id IN :ids AND a.status = :status")
+  List<ArticleSummaryDTO> findSummariesByIdInAndStatus(
+    @Param("ids") Collection<Long> ids,
+    @Param("status") ArticleStatus status
+  );
 
-  List<Article> findByStatusAndCreatedBy(ArticleStatus status, String createdBy);
+  // Columns read by ArticleSearchIndex, in id order one batch at a time
+  interface SearchableArticle {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getCompany();
+    String getApp();
+    String getContent();
+  }
 
-  List<Article> findByCategorySlugIgnoreCaseAndStatus(String slug, ArticleStatus status);
+  List<SearchableArticle> findSearchableByStatusAndIdGreaterThanOrderByIdAsc(ArticleStatus status, Long id, Limit limit);
 
 }
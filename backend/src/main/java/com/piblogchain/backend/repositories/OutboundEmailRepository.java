@@ -0,0 +1,48 @@
+package com.piblogchain.backend.repositories;
+
+import com.piblogchain.backend.enums.OutboundEmailStatus;
+import com.piblogchain.backend.models.OutboundEmail;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+  long countByStatus(OutboundEmailStatus status);
+
+  // Pending messages whose next attempt is due and that no worker is sending
+  @Query("""
+    SELECT e.id FROM OutboundEmail e
+    WHERE e.status = :status
+      AND e.nextAttemptAt <= :now
+      AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)
+    ORDER BY e.nextAttemptAt
+    """)
+  List<Long> findDueIds(
+    @Param("status") OutboundEmailStatus status,
+    @Param("now") LocalDateTime now,
+    Pageable pageable
+  );
+
+  // Takes a message for sending; returns 0 if another worker or instance already has it
+  @Transactional
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("""
+    UPDATE OutboundEmail e SET e.claimedUntil = :until
+    WHERE e.id = :id
+      AND e.status = :status
+      AND (e.claimedUntil IS NULL OR e.claimedUntil < :now)
+    """)
+  int claim(
+    @Param("id") Long id,
+    @Param("status") OutboundEmailStatus status,
+    @Param("now") LocalDateTime now,
+    @Param("until") LocalDateTime until
+  );
+}
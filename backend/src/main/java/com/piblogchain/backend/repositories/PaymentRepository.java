@@ -3,9 +3,14 @@ package com.piblogchain.backend.repositories;
 import com.piblogchain.backend.enums.PaymentStatus;
 import com.piblogchain.backend.models.Article;
 import com.piblogchain.backend.models.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,9 +22,24 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
   List<Payment> findByArticleId(Long articleId);
 
-  Payment findTopByArticleAndStatusOrderByExpirationAtDesc(Article article, PaymentStatus status);
-
-  List<Payment> findByArticleIsNullAndStatusAndCreatedAtBefore(PaymentStatus status, LocalDateTime before);
+  List<Payment> findByArticleIdInAndStatus(Collection<Long> articleIds, PaymentStatus status);
 
+  Payment findTopByArticleAndStatusOrderByExpirationAtDesc(Article article, PaymentStatus status);
 
+  // Ids of payments never attached to an article, oldest first (one cleanup chunk)
+  @Query("""
+    SELECT p.id FROM Payment p
+    WHERE p.article IS NULL AND p.status = :status AND p.createdAt < :before
+    ORDER BY p.id
+    """)
+  List<Long> findAbandonedIds(
+    @Param("status") PaymentStatus status,
+    @Param("before") LocalDateTime before,
+    Pageable pageable
+  );
+
+  // Re-checks the conditions so a payment attached since the select is kept
+  @Modifying
+  @Query("DELETE FROM Payment p WHERE p.id IN :ids AND p.article IS NULL AND p.status = :status")
+  int deleteAbandoned(@Param("ids") Collection<Long> ids, @Param("status") PaymentStatus status);
 }
@@ -1,14 +1,24 @@
 package com.piblogchain.backend.repositories;
 
 import com.piblogchain.backend.models.SessionLink;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface SessionLinkRepository extends JpaRepository<SessionLink, Long> {
   Optional<SessionLink> findByCode(String code);
-  void deleteByCode(String code);
-  void deleteAllByCreatedAtBefore(LocalDateTime time);
 
+  @Query("SELECT s.id FROM SessionLink s WHERE s.createdAt < :before ORDER BY s.id")
+  List<Long> findExpiredIds(@Param("before") LocalDateTime before, Pageable pageable);
+
+  @Modifying
+  @Query("DELETE FROM SessionLink s WHERE s.id IN :ids")
+  int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,19 @@
+package com.piblogchain.backend.repositories;
+
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.SlotGuard;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface SlotGuardRepository extends JpaRepository<SlotGuard, Long> {
+
+  // Row lock held until the surrounding transaction ends
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT g FROM SlotGuard g WHERE g.promoteType = :type AND g.categorySlug = :slug")
+  Optional<SlotGuard> lockByKey(@Param("type") PromoteType type, @Param("slug") String slug);
+}
@@ -0,0 +1,49 @@
+package com.piblogchain.backend.repositories;
+
+import com.piblogchain.backend.dto.SlotUsage;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.SlotLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface SlotLeaseRepository extends JpaRepository<SlotLease, Long> {
+
+  Optional<SlotLease> findByPaymentId(String paymentId);
+
+  // Active leases of a key, optionally ignoring the lease of the payment being processed
+  @Query("""
+    SELECT COUNT(l) FROM SlotLease l
+    WHERE l.promoteType = :type
+      AND l.categorySlug = :slug
+      AND l.expiresAt > :now
+      AND l.paymentId <> :excludedPaymentId
+    """)
+  long countActive(
+    @Param("type") PromoteType type,
+    @Param("slug") String slug,
+    @Param("now") LocalDateTime now,
+    @Param("excludedPaymentId") String excludedPaymentId
+  );
+
+  @Query("""
+    SELECT new com.piblogchain.backend.dto.SlotUsage(l.categorySlug, COUNT(l))
+    FROM SlotLease l
+    WHERE l.promoteType = :type AND l.expiresAt > :now
+    GROUP BY l.categorySlug
+    """)
+  List<SlotUsage> countActivePerCategory(@Param("type") PromoteType type, @Param("now") LocalDateTime now);
+
+  @Modifying
+  @Query("DELETE FROM SlotLease l WHERE l.paymentId = :paymentId")
+  int deleteByPaymentId(@Param("paymentId") String paymentId);
+
+  @Modifying
+  @Query("DELETE FROM SlotLease l WHERE l.expiresAt <= :now")
+  int deleteExpired(@Param("now") LocalDateTime now);
+}
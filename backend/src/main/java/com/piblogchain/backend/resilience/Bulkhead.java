@@ -0,0 +1,37 @@
+package com.piblogchain.backend.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps concurrent calls to a dependency so that a slow upstream can only hold a bounded number of
+ * request threads. Callers wait at most {@code maxWait} for a permit.
+ */
+public class Bulkhead {
+
+  private final Semaphore permits;
+  private final Duration maxWait;
+
+  public Bulkhead(int maxConcurrentCalls, Duration maxWait) {
+    this.permits = new Semaphore(maxConcurrentCalls);
+    this.maxWait = maxWait;
+  }
+
+  public boolean tryEnter() {
+    try {
+      return permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  public void exit() {
+    permits.release();
+  }
+
+  public int availablePermits() {
+    return permits.availablePermits();
+  }
+}
@@ -0,0 +1,94 @@
+package com.piblogchain.backend.resilience;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * <p>
+ * After {@code failureThreshold} failures in a row the circuit opens and calls are rejected for
+ * {@code openDuration}. The first call after that is let through as a probe (half-open): success
+ * closes the circuit, failure opens it again.
+ * </p>
+ */
+public class CircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  @FunctionalInterface
+  public interface TransitionListener {
+    void onTransition(State from, State to);
+  }
+
+  private final int failureThreshold;
+  private final Duration openDuration;
+  private final Clock clock;
+  private final TransitionListener listener;
+
+  private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+  private final AtomicInteger consecutiveFailures = new AtomicInteger();
+  private volatile Instant openedAt = Instant.EPOCH;
+
+  public CircuitBreaker(int failureThreshold, Duration openDuration, Clock clock, TransitionListener listener) {
+    this.failureThreshold = failureThreshold;
+    this.openDuration = openDuration;
+    this.clock = clock;
+    this.listener = listener;
+  }
+
+  public State getState() {
+    return state.get();
+  }
+
+  // True if the call may proceed; the caller that moves the circuit to half-open is the probe
+  public boolean tryAcquirePermission() {
+    State current = state.get();
+    if (current == State.CLOSED) {
+      return true;
+    }
+    if (current == State.OPEN && !clock.instant().isBefore(openedAt.plus(openDuration))) {
+      return transition(State.OPEN, State.HALF_OPEN);
+    }
+    return false;
+  }
+
+  // Time left before the next probe is let through; zero unless the circuit is open
+  public Duration remainingOpenTime() {
+    if (state.get() != State.OPEN) {
+      return Duration.ZERO;
+    }
+    Duration left = Duration.between(clock.instant(), openedAt.plus(openDuration));
+    return left.isNegative() ? Duration.ZERO : left;
+  }
+
+  public void onSuccess() {
+    consecutiveFailures.set(0);
+    transition(State.HALF_OPEN, State.CLOSED);
+  }
+
+  public void onFailure() {
+    if (state.get() == State.HALF_OPEN) {
+      open(State.HALF_OPEN);
+    } else if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+      open(State.CLOSED);
+    }
+  }
+
+  private void open(State from) {
+    openedAt = clock.instant();
+    if (transition(from, State.OPEN)) {
+      consecutiveFailures.set(0);
+    }
+  }
+
+  private boolean transition(State from, State to) {
+    if (!state.compareAndSet(from, to)) {
+      return false;
+    }
+    listener.onTransition(from, to);
+    return true;
+  }
+}
@@ -0,0 +1,10 @@
+package com.piblogchain.backend.resilience;
+
+/**
+ * Call to an external dependency; may throw checked exceptions (I/O, SDK errors).
+ */
+@FunctionalInterface
+public interface DependencyCall<T> {
+
+  T call() throws Exception;
+}
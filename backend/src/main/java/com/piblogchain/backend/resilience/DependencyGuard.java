@@ -0,0 +1,118 @@
+package com.piblogchain.backend.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Circuit breaker plus bulkhead for one external dependency. Obtain instances from
+ * {@link ResilienceRegistry}.
+ */
+public class DependencyGuard {
+
+  private final String name;
+  private final CircuitBreaker circuitBreaker;
+  private final Bulkhead bulkhead;
+  private final Counter successes;
+  private final Counter failures;
+  private final Counter circuitRejections;
+  private final Counter bulkheadRejections;
+
+  DependencyGuard(String name, CircuitBreaker circuitBreaker, Bulkhead bulkhead, MeterRegistry meterRegistry) {
+    this.name = name;
+    this.circuitBreaker = circuitBreaker;
+    this.bulkhead = bulkhead;
+    this.successes = callCounter(meterRegistry, "success");
+    this.failures = callCounter(meterRegistry, "failure");
+    this.circuitRejections = callCounter(meterRegistry, "circuit_open");
+    this.bulkheadRejections = callCounter(meterRegistry, "bulkhead_full");
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public CircuitBreaker.State getState() {
+    return circuitBreaker.getState();
+  }
+
+  /**
+   * Runs the call through the bulkhead and circuit breaker. Any exception it throws counts as a
+   * failure and is rethrown; a rejected call throws {@link DependencyUnavailableException}.
+   */
+  public <T> T call(DependencyCall<T> action) throws Exception {
+    enter();
+    try {
+      return callThroughCircuit(action);
+    } finally {
+      bulkhead.exit();
+    }
+  }
+
+  /**
+   * Same as {@link #call(DependencyCall)} for results still in use after it returns, such as an HTTP
+   * response whose body is read later: the bulkhead permit is kept until the lease is released.
+   * A rejected or failed call gives it back right away.
+   */
+  public <T> Lease<T> lease(DependencyCall<T> action) throws Exception {
+    enter();
+    try {
+      T result = callThroughCircuit(action);
+      AtomicBoolean released = new AtomicBoolean();
+      return new Lease<>(result, () -> {
+        if (released.compareAndSet(false, true)) {
+          bulkhead.exit();
+        }
+      });
+    } catch (Throwable t) {
+      bulkhead.exit();
+      throw t;
+    }
+  }
+
+  // Same as call(action), returning the fallback's value on failure or rejection
+  public <T> T call(DependencyCall<T> action, Function<Exception, T> fallback) {
+    try {
+      return call(action);
+    } catch (Exception e) {
+      return fallback.apply(e);
+    }
+  }
+
+  private void enter() {
+    if (!bulkhead.tryEnter()) {
+      bulkheadRejections.increment();
+      throw new DependencyUnavailableException("Too many concurrent calls to " + name);
+    }
+  }
+
+  private <T> T callThroughCircuit(DependencyCall<T> action) throws Exception {
+    if (!circuitBreaker.tryAcquirePermission()) {
+      circuitRejections.increment();
+      throw new DependencyUnavailableException("Circuit open for " + name, circuitBreaker.remainingOpenTime());
+    }
+    try {
+      T result = action.call();
+      circuitBreaker.onSuccess();
+      successes.increment();
+      return result;
+    } catch (Throwable t) {
+      circuitBreaker.onFailure();
+      failures.increment();
+      throw t;
+    }
+  }
+
+  private Counter callCounter(MeterRegistry meterRegistry, String outcome) {
+    return Counter.builder("resilience.calls")
+      .tag("dependency", name)
+      .tag("outcome", outcome)
+      .register(meterRegistry);
+  }
+
+  // Result of a call that still holds its bulkhead permit; release() may run more than once
+  public record Lease<T>(T value, Runnable release) {
+  }
+}
@@ -0,0 +1,26 @@
+package com.piblogchain.backend.resilience;
+
+import java.time.Duration;
+
+/**
+ * Thrown without calling the dependency when its circuit is open or its bulkhead is full.
+ * {@link #getRetryAfter()} is the time left before the circuit lets a call through again, or zero
+ * when that is not known.
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public DependencyUnavailableException(String message) {
+    this(message, Duration.ZERO);
+  }
+
+  public DependencyUnavailableException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,77 @@
+package com.piblogchain.backend.resilience;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Sends every request of a {@code RestTemplate} through a {@link DependencyGuard}. 5xx responses
+ * count as failures so that a degraded upstream opens the circuit even when it still answers. The
+ * bulkhead permit is held until the response is closed, so reading the body counts as in-flight work.
+ */
+public class GuardedRequestInterceptor implements ClientHttpRequestInterceptor {
+
+  private final DependencyGuard guard;
+
+  public GuardedRequestInterceptor(DependencyGuard guard) {
+    this.guard = guard;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    DependencyGuard.Lease<ClientHttpResponse> lease;
+    try {
+      lease = guard.lease(() -> {
+        ClientHttpResponse response = execution.execute(request, body);
+        if (response.getStatusCode().is5xxServerError()) {
+          response.close();
+          throw new IOException(guard.getName() + " responded " + response.getStatusCode().value());
+        }
+        return response;
+      });
+    } catch (IOException | RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IOException(e);
+    }
+    return new ReleasingResponse(lease.value(), lease.release());
+  }
+
+  private record ReleasingResponse(ClientHttpResponse delegate, Runnable release) implements ClientHttpResponse {
+
+    @Override
+    public HttpStatusCode getStatusCode() throws IOException {
+      return delegate.getStatusCode();
+    }
+
+    @Override
+    public String getStatusText() throws IOException {
+      return delegate.getStatusText();
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+      return delegate.getHeaders();
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+      return delegate.getBody();
+    }
+
+    @Override
+    public void close() {
+      try {
+        delegate.close();
+      } finally {
+        release.run();
+      }
+    }
+  }
+}
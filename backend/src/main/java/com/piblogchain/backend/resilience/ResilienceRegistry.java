@@ -0,0 +1,96 @@
+package com.piblogchain.backend.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link DependencyGuard} per external dependency, configured from
+ * {@code resilience.<dependency>.*} properties.
+ * <p>
+ * Metrics: {@code resilience.calls} (by outcome), {@code resilience.circuit.state}
+ * (0 closed, 1 half-open, 2 open) and {@code resilience.circuit.transitions}.
+ * </p>
+ */
+@Component
+public class ResilienceRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(ResilienceRegistry.class);
+
+  public static final String OKX = "okx";
+  public static final String PI_API = "pi";
+  public static final String PING = "ping";
+  public static final String CLOUDINARY = "cloudinary";
+  public static final String SMTP = "smtp";
+
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
+  private final Clock clock;
+  private final Map<String, DependencyGuard> guards = new ConcurrentHashMap<>();
+
+  @Autowired
+  public ResilienceRegistry(MeterRegistry meterRegistry, Environment environment) {
+    this(meterRegistry, environment, Clock.systemUTC());
+  }
+
+  ResilienceRegistry(MeterRegistry meterRegistry, Environment environment, Clock clock) {
+    this.meterRegistry = meterRegistry;
+    this.environment = environment;
+    this.clock = clock;
+  }
+
+  public DependencyGuard guard(String dependency) {
+    return guards.computeIfAbsent(dependency, this::create);
+  }
+
+  private DependencyGuard create(String dependency) {
+    int failureThreshold = property(dependency, "failure-threshold", 5);
+    int openSeconds = property(dependency, "open-seconds", 30);
+    int maxConcurrent = property(dependency, "max-concurrent", 10);
+    int maxWaitMs = property(dependency, "max-wait-ms", 500);
+
+    CircuitBreaker circuitBreaker = new CircuitBreaker(
+      failureThreshold, Duration.ofSeconds(openSeconds), clock, (from, to) -> onTransition(dependency, from, to));
+    Gauge.builder("resilience.circuit.state", circuitBreaker, ResilienceRegistry::stateValue)
+      .tag("dependency", dependency)
+      .register(meterRegistry);
+
+    return new DependencyGuard(dependency, circuitBreaker, new Bulkhead(maxConcurrent, Duration.ofMillis(maxWaitMs)), meterRegistry);
+  }
+
+  private void onTransition(String dependency, CircuitBreaker.State from, CircuitBreaker.State to) {
+    Counter.builder("resilience.circuit.transitions")
+      .tag("dependency", dependency)
+      .tag("from", from.name())
+      .tag("to", to.name())
+      .register(meterRegistry)
+      .increment();
+    if (to == CircuitBreaker.State.OPEN) {
+      log.warn("Circuit for {} opened ({} -> {})", dependency, from, to);
+    } else {
+      log.info("Circuit for {} moved {} -> {}", dependency, from, to);
+    }
+  }
+
+  private static double stateValue(CircuitBreaker circuitBreaker) {
+    return switch (circuitBreaker.getState()) {
+      case CLOSED -> 0;
+      case HALF_OPEN -> 1;
+      case OPEN -> 2;
+    };
+  }
+
+  private int property(String dependency, String key, int defaultValue) {
+    return environment.getProperty("resilience." + dependency + "." + key, Integer.class, defaultValue);
+  }
+}
@@ -0,0 +1,129 @@
+package com.piblogchain.backend.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last run of every periodic job and flags overruns.
+ * <p>
+ * {@code @Scheduled} methods are picked up from the {@code tasks.scheduled.execution} observations,
+ * which also produce the execution-time timers; jobs scheduled by hand (the keep-alive ping) report
+ * through {@link #recordRun}. A run longer than {@code scheduling.jobs.<job>.max-duration-seconds}
+ * (default {@code scheduling.jobs.default-max-duration-seconds}) is logged and counted in
+ * {@code scheduling.job.overruns}.
+ * </p>
+ */
+@Component
+public class ScheduledJobMonitor implements ObservationHandler<ScheduledTaskObservationContext> {
+
+  private static final Logger log = LoggerFactory.getLogger(ScheduledJobMonitor.class);
+
+  private static final String STARTED_AT = ScheduledJobMonitor.class.getName() + ".startedAt";
+  private static final String STARTED_NANOS = ScheduledJobMonitor.class.getName() + ".startedNanos";
+
+  private final MeterRegistry meterRegistry;
+  private final Environment environment;
+  private final Map<String, JobRuns> jobs = new ConcurrentHashMap<>();
+
+  public ScheduledJobMonitor(MeterRegistry meterRegistry, Environment environment) {
+    this.meterRegistry = meterRegistry;
+    this.environment = environment;
+  }
+
+  @Override
+  public boolean supportsContext(Observation.Context context) {
+    return context instanceof ScheduledTaskObservationContext;
+  }
+
+  @Override
+  public void onStart(ScheduledTaskObservationContext context) {
+    context.put(STARTED_AT, Instant.now());
+    context.put(STARTED_NANOS, System.nanoTime());
+  }
+
+  @Override
+  public void onStop(ScheduledTaskObservationContext context) {
+    Instant startedAt = context.get(STARTED_AT);
+    Long startedNanos = context.get(STARTED_NANOS);
+    if (startedAt == null || startedNanos == null) return;
+
+    String job = jobName(ClassUtils.getQualifiedMethodName(context.getMethod(), context.getTargetClass()));
+    recordRun(job, startedAt, Duration.ofNanos(System.nanoTime() - startedNanos), context.getError() == null, null);
+  }
+
+  public void recordRun(String job, Instant startedAt, Duration duration, boolean success, Instant nextRun) {
+    Duration budget = maxDuration(job);
+    boolean overrun = duration.compareTo(budget) > 0;
+    jobs.compute(job, (name, previous) -> (previous == null ? JobRuns.NONE : previous)
+      .next(startedAt, duration, success, overrun, nextRun));
+
+    if (overrun) {
+      Counter.builder("scheduling.job.overruns")
+        .description("Periodic job runs that took longer than their budget")
+        .tag("job", job)
+        .register(meterRegistry)
+        .increment();
+      log.warn("Job {} took {} ms, budget is {} ms", job, duration.toMillis(), budget.toMillis());
+    }
+  }
+
+  public Map<String, JobRuns> runs() {
+    return Map.copyOf(jobs);
+  }
+
+  // "com.example.Foo.bar" -> "Foo.bar"
+  static String jobName(String qualifiedMethodName) {
+    int methodDot = qualifiedMethodName.lastIndexOf('.');
+    int classDot = methodDot > 0 ? qualifiedMethodName.lastIndexOf('.', methodDot - 1) : -1;
+    return qualifiedMethodName.substring(classDot + 1);
+  }
+
+  private Duration maxDuration(String job) {
+    long defaultSeconds = environment.getProperty("scheduling.jobs.default-max-duration-seconds", Long.class, 30L);
+    return Duration.ofSeconds(
+      environment.getProperty("scheduling.jobs." + job + ".max-duration-seconds", Long.class, defaultSeconds));
+  }
+
+  /**
+   * Run history of one job. {@code nextRun} is only known for jobs reported through
+   * {@link #recordRun}; for {@code @Scheduled} methods it comes from the scheduler itself.
+   */
+  public record JobRuns(
+    long runs,
+    long failures,
+    long overruns,
+    Instant lastStart,
+    Duration lastDuration,
+    Duration maxDuration,
+    boolean lastSucceeded,
+    Instant nextRun
+  ) {
+
+    static final JobRuns NONE = new JobRuns(0, 0, 0, null, null, Duration.ZERO, false, null);
+
+    JobRuns next(Instant startedAt, Duration duration, boolean success, boolean overrun, Instant plannedNext) {
+      return new JobRuns(
+        runs + 1,
+        success ? failures : failures + 1,
+        overrun ? overruns + 1 : overruns,
+        startedAt,
+        duration,
+        duration.compareTo(maxDuration) > 0 ? duration : maxDuration,
+        success,
+        plannedNext);
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.piblogchain.backend.scheduling;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.FixedRateTask;
+import org.springframework.scheduling.config.IntervalTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.scheduling.config.Task;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/jobs}: trigger, last and next run, and run statistics of every periodic job.
+ */
+@Component
+@Endpoint(id = "jobs")
+public class ScheduledJobsEndpoint {
+
+  private final ObjectProvider<ScheduledTaskHolder> scheduledTaskHolders;
+  private final ScheduledJobMonitor jobMonitor;
+
+  public ScheduledJobsEndpoint(ObjectProvider<ScheduledTaskHolder> scheduledTaskHolders, ScheduledJobMonitor jobMonitor) {
+    this.scheduledTaskHolders = scheduledTaskHolders;
+    this.jobMonitor = jobMonitor;
+  }
+
+  @ReadOperation
+  public Map<String, JobDescriptor> jobs() {
+    Map<String, ScheduledJobMonitor.JobRuns> runs = jobMonitor.runs();
+    Map<String, JobDescriptor> jobs = new TreeMap<>();
+
+    scheduledTaskHolders.orderedStream()
+      .flatMap(holder -> holder.getScheduledTasks().stream())
+      .forEach(scheduledTask -> {
+        // A @Scheduled task prints as the qualified name of its method
+        String job = ScheduledJobMonitor.jobName(scheduledTask.getTask().toString());
+        jobs.put(job, describe(trigger(scheduledTask.getTask()), scheduledTask.nextExecution(), runs.get(job)));
+      });
+
+    runs.forEach((job, jobRuns) -> jobs.computeIfAbsent(job, name -> describe("dynamic", jobRuns.nextRun(), jobRuns)));
+    return jobs;
+  }
+
+  private static JobDescriptor describe(String trigger, Instant nextRun, ScheduledJobMonitor.JobRuns runs) {
+    if (runs == null) {
+      return new JobDescriptor(trigger, nextRun, null, null, null, null, 0, 0, 0);
+    }
+    return new JobDescriptor(
+      trigger,
+      nextRun,
+      runs.lastStart(),
+      runs.lastSucceeded() ? "SUCCESS" : "ERROR",
+      runs.lastDuration().toMillis(),
+      runs.maxDuration().toMillis(),
+      runs.runs(),
+      runs.failures(),
+      runs.overruns());
+  }
+
+  private static String trigger(Task task) {
+    if (task instanceof FixedRateTask rate) return "fixedRate " + rate.getIntervalDuration();
+    if (task instanceof FixedDelayTask delay) return "fixedDelay " + delay.getIntervalDuration();
+    if (task instanceof IntervalTask interval) return "interval " + interval.getIntervalDuration();
+    return task.getClass().getSimpleName();
+  }
+
+  public record JobDescriptor(
+    String trigger,
+    Instant nextRun,
+    Instant lastRun,
+    String lastOutcome,
+    Long lastDurationMs,
+    Long maxDurationMs,
+    long runs,
+    long failures,
+    long overruns
+  ) {
+  }
+}
@@ -1,8 +1,7 @@
 package com.piblogchain.backend.security;
 
 import com.piblogchain.backend.utils.PiNetworkValidator;
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
+import com.piblogchain.backend.utils.PiTokenClaims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -15,8 +14,8 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.security.PublicKey;
 import java.util.Collections;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -57,42 +56,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
     String token = authorizationHeader.substring(7);
-    System.out.println("🔑 Token extraído: " + token);
-
-    if (!piNetworkValidator.validateAccessToken(token)) {
 
+    // Verificación única: firma + claims (o valores fijos en sandbox/dev)
+    Optional<PiTokenClaims> verified = piNetworkValidator.verify(token);
+    if (verified.isEmpty()) {
       response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid access token");
       return;
     }
     System.out.println("✅ Token válido");
 
-    String piId;
-    String role;
-    if ("dev".equals(piNetworkValidator.getActiveProfile()) || "sandbox".equals(piNetworkValidator.getActiveProfile())) {
-      // En modo sandbox/dev, usar valores por defecto
-      piId = "Myblood";
-      role = "ADMIN"; // Asegura que coincide con lo esperado en SecurityConfig
-      System.out.println("🟢 Modo sandbox/dev activo");
-      System.out.println("🌍 Perfil activo: " + piNetworkValidator.getActiveProfile());
-
-    } else {
-      // En modo producción, validar como JWT
-      try {
-        PublicKey publicKey = piNetworkValidator.getPiPublicKey();
-        Claims claims = Jwts.parserBuilder()
-          .setSigningKey(publicKey)
-          .build()
-          .parseClaimsJws(token)
-          .getBody();
-        piId = claims.getSubject();
-        role = claims.get("role", String.class);
-        System.out.println("👤 piId: " + piId + ", role: " + role);
-      } catch (Exception e) {
-        System.out.println("⚠️ Error procesando claims: " + e.getMessage());
-        response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Invalid JWT token claims");
-        return;
-      }
-    }
+    String piId = verified.get().piId();
+    String role = verified.get().role();
 
     if (piId != null && role != null) {
       // Usar SimpleGrantedAuthority para asignar el rol
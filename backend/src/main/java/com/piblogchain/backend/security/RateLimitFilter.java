@@ -0,0 +1,172 @@
+package com.piblogchain.backend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client throttling of the public endpoints that write to the database, send email or run
+ * heavy queries. Each {@code rate-limit.rules} entry gets its own token bucket per client, keyed by
+ * the authenticated Pi user or, for anonymous calls, the client IP. Rejected requests get 429 with a
+ * {@code Retry-After} header.
+ * <p>
+ * Buckets live in an access-ordered map per rule and are dropped once they have refilled, so
+ * memory only grows with clients active within one refill period. {@code rate-limit.max-clients}
+ * caps it even under a flood of distinct addresses: past the cap the least recently seen client's
+ * bucket is evicted, so every new client still gets a bucket of its own.
+ * </p>
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+  private final List<RuleBuckets> rules;
+  private final int maxClients;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier nanoClock;
+
+  @Autowired
+  public RateLimitFilter(
+    @Value("${rate-limit.rules:}") List<String> rules,
+    @Value("${rate-limit.max-clients:50000}") int maxClients,
+    MeterRegistry meterRegistry
+  ) {
+    this(rules, maxClients, meterRegistry, System::nanoTime);
+  }
+
+  RateLimitFilter(List<String> rules, int maxClients, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+    this.rules = rules.stream()
+      .filter(rule -> !rule.isBlank())
+      .map(RateLimitRule::parse)
+      .map(RuleBuckets::new)
+      .toList();
+    this.maxClients = maxClients;
+    this.meterRegistry = meterRegistry;
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+    throws ServletException, IOException {
+
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (RuleBuckets rule : rules) {
+      if (!rule.definition().matches(request.getMethod(), path)) continue;
+
+      long now = nanoClock.getAsLong();
+      long waitNanos = rule.bucketFor(clientKey(request), now).tryConsume(now);
+      if (waitNanos > 0) {
+        reject(response, rule, waitNanos);
+        return;
+      }
+      break;
+    }
+    chain.doFilter(request, response);
+  }
+
+  // Removes buckets that have refilled; they would behave exactly like new ones
+  @Scheduled(fixedRate = 60 * 1000)
+  public void evictIdleBuckets() {
+    long now = nanoClock.getAsLong();
+    for (RuleBuckets rule : rules) {
+      rule.evictFull(now);
+    }
+  }
+
+  int trackedClients() {
+    return rules.stream().mapToInt(RuleBuckets::size).sum();
+  }
+
+  private void reject(HttpServletResponse response, RuleBuckets rule, long waitNanos) throws IOException {
+    long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    meterRegistry.counter("http.server.requests.throttled", "rule", rule.definition().name()).increment();
+    log.debug("Rate limit exceeded for {}", rule.definition().name());
+
+    response.setStatus(429);
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.getWriter().write("{\"error\":\"Too many requests, retry in " + retryAfterSeconds + "s\"}");
+  }
+
+  // Authenticated Pi user if any, otherwise the client address (resolved from the proxy headers)
+  private static String clientKey(HttpServletRequest request) {
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    if (authentication != null && authentication.isAuthenticated()
+      && !(authentication instanceof AnonymousAuthenticationToken)) {
+      return "user:" + authentication.getName();
+    }
+    return "ip:" + request.getRemoteAddr();
+  }
+
+  private final class RuleBuckets {
+
+    private final RateLimitRule definition;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access-ordered, so the eldest entry is the least recently seen client
+    private final Map<String, TokenBucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+        return size() > maxClients;
+      }
+    };
+
+    RuleBuckets(RateLimitRule definition) {
+      this.definition = definition;
+    }
+
+    RateLimitRule definition() {
+      return definition;
+    }
+
+    // The lock only guards the map; tokens are taken from the bucket outside it
+    TokenBucket bucketFor(String client, long now) {
+      lock.lock();
+      try {
+        return buckets.computeIfAbsent(client, k -> new TokenBucket(definition.capacity(), definition.period().toNanos(), now));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void evictFull(long now) {
+      lock.lock();
+      try {
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    int size() {
+      lock.lock();
+      try {
+        return buckets.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package com.piblogchain.backend.security;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.util.AntPathMatcher;
+
+import java.time.Duration;
+
+/**
+ * One throttled route, written as {@code METHOD /path/pattern=capacity/periodSeconds}, e.g.
+ * {@code POST /api/contact=5/600} allows bursts of 5 requests refilled over 10 minutes.
+ */
+record RateLimitRule(HttpMethod method, String pattern, int capacity, Duration period) {
+
+  private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+  static RateLimitRule parse(String definition) {
+    try {
+      String[] routeAndLimit = definition.trim().split("=");
+      String[] methodAndPattern = routeAndLimit[0].trim().split("\\s+");
+      String[] capacityAndPeriod = routeAndLimit[1].trim().split("/");
+      int capacity = Integer.parseInt(capacityAndPeriod[0]);
+      long periodSeconds = Long.parseLong(capacityAndPeriod[1]);
+      if (capacity <= 0 || periodSeconds <= 0) {
+        throw new IllegalArgumentException("capacity and period must be positive");
+      }
+      return new RateLimitRule(
+        HttpMethod.valueOf(methodAndPattern[0]), methodAndPattern[1], capacity, Duration.ofSeconds(periodSeconds));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid rate limit rule '" + definition + "': " + e.getMessage(), e);
+    }
+  }
+
+  boolean matches(String method, String path) {
+    return this.method.matches(method) && PATH_MATCHER.match(pattern, path);
+  }
+
+  String name() {
+    return method.name() + " " + pattern;
+  }
+}
@@ -0,0 +1,48 @@
+package com.piblogchain.backend.security;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket: {@code capacity} tokens refilled continuously over {@code periodNanos}.
+ * State changes are compare-and-set on an immutable snapshot, so concurrent requests from the same
+ * client never block each other.
+ */
+final class TokenBucket {
+
+  private record State(double tokens, long refilledAt) {
+  }
+
+  private final int capacity;
+  private final double tokensPerNano;
+  private final AtomicReference<State> state;
+
+  TokenBucket(int capacity, long periodNanos, long now) {
+    this.capacity = capacity;
+    this.tokensPerNano = (double) capacity / periodNanos;
+    this.state = new AtomicReference<>(new State(capacity, now));
+  }
+
+  // Takes one token; returns 0 on success or the nanoseconds until the next token is available
+  long tryConsume(long now) {
+    while (true) {
+      State current = state.get();
+      double tokens = available(current, now);
+      if (tokens < 1) {
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+      }
+      if (state.compareAndSet(current, new State(tokens - 1, Math.max(now, current.refilledAt())))) {
+        return 0;
+      }
+    }
+  }
+
+  // A full bucket behaves exactly like a new one, so it can be dropped
+  boolean isFull(long now) {
+    return available(state.get(), now) >= capacity;
+  }
+
+  private double available(State current, long now) {
+    long elapsed = Math.max(0, now - current.refilledAt());
+    return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+  }
+}
@@ -0,0 +1,218 @@
+package com.piblogchain.backend.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Read-through cache of the public article detail ({@code GET /api/articles/{id}}), stored as the
+ * JSON bytes sent to the client.
+ * <p>
+ * Entries are bounded both by count ({@code cache.articles.max-entries}) and by their total size
+ * ({@code cache.articles.max-bytes}), evicting the least recently read first. Every write to an
+ * article or its promotions calls {@link #invalidate(Long)}, which moves the version of that id
+ * forward; a load only stores its result if the version did not move while it was reading, so a slow
+ * read never puts back an article older than the last write. The versions double as ETags.
+ * </p>
+ */
+@Component
+public class ArticleDetailCache {
+
+  private static final Logger log = LoggerFactory.getLogger(ArticleDetailCache.class);
+
+  private static final String CACHE_NAME = "articles";
+
+  private final ArticleRepository articleRepository;
+  private final ObjectMapper objectMapper;
+  private final int maxEntries;
+  private final long maxBytes;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  // Access order, so iteration starts at the least recently read entry
+  private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  // Value of lastWrite when each article was last written; ids are never reused
+  private final Map<Long, Long> versions = new HashMap<>();
+  // Counts every invalidation, so it is also the version of the article list
+  private volatile long lastWrite;
+  private long lastClear;
+  private long totalBytes;
+
+  private final Counter hits;
+  private final Counter misses;
+  private final Counter evictions;
+
+  public ArticleDetailCache(
+    ArticleRepository articleRepository,
+    ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Value("${cache.articles.max-entries:500}") int maxEntries,
+    @Value("${cache.articles.max-bytes:16777216}") long maxBytes
+  ) {
+    this.articleRepository = articleRepository;
+    this.objectMapper = objectMapper;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+    this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+    this.evictions = meterRegistry.counter("cache.evictions", "cache", CACHE_NAME);
+    Gauge.builder("cache.size", this, ArticleDetailCache::size).tag("cache", CACHE_NAME).register(meterRegistry);
+    Gauge.builder("cache.weight.bytes", this, ArticleDetailCache::weight).tag("cache", CACHE_NAME).register(meterRegistry);
+  }
+
+  // Returns the serialized article, loading it with its promotions and category on a miss
+  public Optional<byte[]> get(Long id) {
+    long version;
+    lock.lock();
+    try {
+      Entry entry = entries.get(id);
+      if (entry != null) {
+        hits.increment();
+        return Optional.of(entry.json());
+      }
+      version = currentVersion(id);
+    } finally {
+      lock.unlock();
+    }
+
+    misses.increment();
+    Optional<Article> article = articleRepository.findWithPromotionsById(id);
+    if (article.isEmpty()) return Optional.empty();
+
+    byte[] json = serialize(article.get());
+    store(id, version, json);
+    return Optional.of(json);
+  }
+
+  /**
+   * Drops the cached article. Inside a transaction it is dropped again after the commit, since a
+   * read between the write and the commit still sees the previous row.
+   */
+  public void invalidate(Long id) {
+    if (id == null) return;
+    bump(id);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          bump(id);
+        }
+      });
+    }
+  }
+
+  // Drops every cached article, e.g. after a category they embed was renamed
+  public void invalidateAll() {
+    lock.lock();
+    try {
+      lastClear = ++lastWrite;
+      entries.clear();
+      totalBytes = 0;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Version of one article; moves forward on every write to it
+  public long version(Long id) {
+    lock.lock();
+    try {
+      return currentVersion(id);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  // Version of the article set as a whole; moves forward on every write to any article
+  public long version() {
+    return lastWrite;
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  long weight() {
+    lock.lock();
+    try {
+      return totalBytes;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void bump(Long id) {
+    lock.lock();
+    try {
+      versions.put(id, ++lastWrite);
+      Entry removed = entries.remove(id);
+      if (removed != null) {
+        totalBytes -= removed.json().length;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void store(Long id, long loadedAt, byte[] json) {
+    if (json.length > maxBytes) return;
+    lock.lock();
+    try {
+      // Written while we were reading: what we loaded may already be stale
+      if (currentVersion(id) != loadedAt) return;
+
+      Entry previous = entries.put(id, new Entry(json));
+      if (previous != null) {
+        totalBytes -= previous.json().length;
+      }
+      totalBytes += json.length;
+
+      Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+      while ((entries.size() > maxEntries || totalBytes > maxBytes) && eldest.hasNext()) {
+        Map.Entry<Long, Entry> evicted = eldest.next();
+        totalBytes -= evicted.getValue().json().length;
+        eldest.remove();
+        evictions.increment();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private long currentVersion(Long id) {
+    return Math.max(lastClear, versions.getOrDefault(id, 0L));
+  }
+
+  private byte[] serialize(Article article) {
+    try {
+      return objectMapper.writeValueAsBytes(article);
+    } catch (JsonProcessingException e) {
+      log.error("Failed to serialize article {}: {}", article.getId(), e.getMessage());
+      throw new IllegalStateException("Failed to serialize article " + article.getId(), e);
+    }
+  }
+
+  private record Entry(byte[] json) {
+  }
+}
@@ -0,0 +1,300 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jsoup.Jsoup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over the published articles, backing {@code GET /api/articles/search}.
+ * <p>
+ * Title, description, company, app and the text of the HTML content are tokenized (lowercase,
+ * accents removed) into one posting list per term, with the fields weighted so that a title match
+ * counts more than a content match. Queries are ranked with BM25, and every query term also matches
+ * the terms it is a prefix of, at a small discount, so partially typed words still find results.
+ * </p>
+ * <p>
+ * The index is loaded on startup in batches of {@code search.index.batch-size} articles and then kept
+ * up to date by {@link ArticleService}, which calls {@link #index(Article)} or {@link #remove(Long)}
+ * on every write; inside a transaction the change is only applied after the commit.
+ * </p>
+ */
+@Component
+public class ArticleSearchIndex {
+
+  private static final Logger log = LoggerFactory.getLogger(ArticleSearchIndex.class);
+
+  // BM25 parameters: term frequency saturation and length normalization
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+  // Score of a term only matched by prefix, relative to an exact match
+  private static final double PREFIX_MATCH = 0.8;
+
+  private static final float TITLE_WEIGHT = 3f;
+  private static final float APP_WEIGHT = 2f;
+  private static final float COMPANY_WEIGHT = 2f;
+  private static final float DESCRIPTION_WEIGHT = 1.5f;
+  private static final float CONTENT_WEIGHT = 1f;
+
+  private static final int MIN_TERM_LENGTH = 2;
+  private static final int MAX_QUERY_LENGTH = 200;
+  private static final int MAX_QUERY_TERMS = 8;
+  private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+  private final ArticleRepository articleRepository;
+  private final int batchSize;
+
+  // Read lock for searches, write lock for changes
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  // Term -> weighted frequency per article id; sorted, so the terms sharing a prefix are one range
+  private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+  // Terms of each indexed article, to take it out of the postings when it changes
+  private final Map<Long, Document> documents = new HashMap<>();
+  private double totalLength;
+  private volatile boolean loaded;
+  private volatile long version;
+
+  public ArticleSearchIndex(
+    ArticleRepository articleRepository,
+    MeterRegistry meterRegistry,
+    @Value("${search.index.batch-size:200}") int batchSize
+  ) {
+    this.articleRepository = articleRepository;
+    this.batchSize = batchSize;
+    Gauge.builder("search.index.documents", this, ArticleSearchIndex::size).register(meterRegistry);
+    Gauge.builder("search.index.terms", this, ArticleSearchIndex::terms).register(meterRegistry);
+  }
+
+  // Loads the index before the first search needs it; if it fails, the first search retries
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    try {
+      ensureLoaded();
+    } catch (RuntimeException e) {
+      log.warn("Search index could not be loaded on startup: {}", e.getMessage());
+    }
+  }
+
+  // Ids of the published articles matching the query, best match first
+  public List<Long> search(String query, int limit) {
+    if (query == null || limit <= 0) return List.of();
+    List<String> terms = tokens(query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) : query)
+      .stream()
+      .distinct()
+      .limit(MAX_QUERY_TERMS)
+      .toList();
+    if (terms.isEmpty()) return List.of();
+
+    ensureLoaded();
+    lock.readLock().lock();
+    try {
+      int documentCount = documents.size();
+      if (documentCount == 0) return List.of();
+      double averageLength = totalLength / documentCount;
+
+      Map<Long, Double> scores = new HashMap<>();
+      for (String term : terms) {
+        // Best match of this query term in each article, so many expansions do not add up
+        Map<Long, Double> termScores = new HashMap<>();
+        int expansions = 0;
+        for (Map.Entry<String, Map<Long, Float>> posting
+          : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+          boolean exact = posting.getKey().equals(term);
+          if (!exact && ++expansions > MAX_PREFIX_EXPANSIONS) break;
+
+          double weight = (exact ? 1 : PREFIX_MATCH) * idf(posting.getValue().size(), documentCount);
+          posting.getValue().forEach((id, frequency) -> {
+            double norm = frequency + K1 * (1 - B + B * documents.get(id).length() / averageLength);
+            termScores.merge(id, weight * frequency * (K1 + 1) / norm, Math::max);
+          });
+        }
+        termScores.forEach((id, score) -> scores.merge(id, score, Double::sum));
+      }
+
+      return scores.entrySet().stream()
+        .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+        .limit(limit)
+        .map(Map.Entry::getKey)
+        .toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Adds or replaces the article, or takes it out if it is not published. The text is extracted now,
+   * while the caller still holds the entity, and applied after the surrounding transaction commits.
+   */
+  public void index(Article article) {
+    if (article == null || article.getId() == null) return;
+    Long id = article.getId();
+    Document document = article.getStatus() == ArticleStatus.PUBLISHED
+      ? document(article.getTitle(), article.getDescription(), article.getCompany(), article.getApp(), article.getContent())
+      : null;
+    afterCommit(() -> apply(id, document));
+  }
+
+  // Takes the article out of the index once the surrounding transaction commits
+  public void remove(Long id) {
+    if (id == null) return;
+    afterCommit(() -> apply(id, null));
+  }
+
+  // Moves forward every time the indexed articles change
+  public long version() {
+    return version;
+  }
+
+  int size() {
+    lock.readLock().lock();
+    try {
+      return documents.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  int terms() {
+    lock.readLock().lock();
+    try {
+      return postings.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private void ensureLoaded() {
+    if (loaded) return;
+    lock.writeLock().lock();
+    try {
+      if (loaded) return;
+      long start = System.nanoTime();
+      // Keyset batches, so only one batch of contents is in memory at a time
+      long lastId = 0;
+      List<ArticleRepository.SearchableArticle> batch;
+      do {
+        batch = articleRepository.findSearchableByStatusAndIdGreaterThanOrderByIdAsc(
+          ArticleStatus.PUBLISHED, lastId, Limit.of(batchSize));
+        for (ArticleRepository.SearchableArticle article : batch) {
+          put(article.getId(), document(
+            article.getTitle(), article.getDescription(), article.getCompany(), article.getApp(), article.getContent()));
+          lastId = article.getId();
+        }
+      } while (batch.size() == batchSize);
+      loaded = true;
+      version++;
+      log.info("Search index loaded: {} articles, {} terms in {} ms",
+        documents.size(), postings.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void apply(Long id, Document document) {
+    lock.writeLock().lock();
+    try {
+      // Not loaded yet: the load reads committed rows, so it will already include this change
+      if (!loaded) return;
+      delete(id);
+      if (document != null) {
+        put(id, document);
+      }
+      version++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void put(Long id, Document document) {
+    documents.put(id, document);
+    document.terms().forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, frequency));
+    totalLength += document.length();
+  }
+
+  private void delete(Long id) {
+    Document document = documents.remove(id);
+    if (document == null) return;
+    for (String term : document.terms().keySet()) {
+      Map<Long, Float> posting = postings.get(term);
+      posting.remove(id);
+      if (posting.isEmpty()) {
+        postings.remove(term);
+      }
+    }
+    totalLength -= document.length();
+  }
+
+  private static void afterCommit(Runnable change) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          change.run();
+        }
+      });
+    } else {
+      change.run();
+    }
+  }
+
+  private static double idf(int documentFrequency, int documentCount) {
+    return Math.log(1 + (documentCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+  }
+
+  private static Document document(String title, String description, String company, String app, String content) {
+    Map<String, Float> terms = new HashMap<>();
+    addTerms(terms, title, TITLE_WEIGHT);
+    addTerms(terms, app, APP_WEIGHT);
+    addTerms(terms, company, COMPANY_WEIGHT);
+    addTerms(terms, description, DESCRIPTION_WEIGHT);
+    addTerms(terms, content == null ? null : Jsoup.parse(content).text(), CONTENT_WEIGHT);
+    float length = 0;
+    for (float frequency : terms.values()) {
+      length += frequency;
+    }
+    return new Document(terms, length);
+  }
+
+  private static void addTerms(Map<String, Float> terms, String text, float weight) {
+    for (String token : tokens(text)) {
+      terms.merge(token, weight, Float::sum);
+    }
+  }
+
+  // Lowercase words without accents, so "Aplicación" and "aplicacion" are the same term
+  static List<String> tokens(String text) {
+    if (text == null || text.isBlank()) return List.of();
+    String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+    return Arrays.stream(NON_WORD.split(normalized.toLowerCase(Locale.ROOT)))
+      .filter(token -> token.length() >= MIN_TERM_LENGTH)
+      .toList();
+  }
+
+  private record Document(Map<String, Float> terms, float length) {
+  }
+}
@@ -2,15 +2,18 @@ package com.piblogchain.backend.services;
 
 import com.piblogchain.backend.dto.ActivePlanDTO;
 import com.piblogchain.backend.dto.ArticleDTO;
+import com.piblogchain.backend.dto.ArticlePage;
+import com.piblogchain.backend.dto.ArticleSummaryDTO;
 import com.piblogchain.backend.dto.CategoryDTO;
 import com.piblogchain.backend.enums.ArticleStatus;
 import com.piblogchain.backend.enums.PaymentStatus;
 import com.piblogchain.backend.enums.PromoteType;
 import com.piblogchain.backend.models.*;
 import com.piblogchain.backend.repositories.ArticleRepository;
-import com.piblogchain.backend.repositories.CategoryRepository;
 import com.piblogchain.backend.repositories.UserRepository;
 import com.piblogchain.backend.repositories.PaymentRepository;
+import com.piblogchain.backend.resilience.DependencyGuard;
+import com.piblogchain.backend.resilience.ResilienceRegistry;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import jakarta.transaction.Transactional;
@@ -21,15 +24,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -38,30 +45,44 @@ public class ArticleService {
 
   private static final Logger log = LoggerFactory.getLogger(ArticleService.class);
 
+  public static final int MAX_PAGE_SIZE = 50;
+
   private final ArticleRepository articleRepository;
-  private final CategoryRepository categoryRepository;
+  private final CategoryCatalog categoryCatalog;
   private final UserRepository userRepository;
   private final Cloudinary cloudinary;
+  private final DependencyGuard cloudinaryGuard;
   private final PaymentRepository paymentRepository;
   private final PaymentService paymentService;
+  private final PromotionReadModel promotionReadModel;
+  private final ArticleDetailCache articleDetailCache;
+  private final ArticleSearchIndex articleSearchIndex;
   private final boolean isProduction;
 
   @Autowired
   public ArticleService(
     ArticleRepository articleRepository,
-    CategoryRepository categoryRepository,
+    CategoryCatalog categoryCatalog,
     UserRepository userRepository,
     PaymentRepository paymentRepository,
     PaymentService paymentService,
-    @Value("${cloudinary.url}") String cloudinaryUrl,
+    PromotionReadModel promotionReadModel,
+    ArticleDetailCache articleDetailCache,
+    ArticleSearchIndex articleSearchIndex,
+    Cloudinary cloudinary,
+    ResilienceRegistry resilienceRegistry,
     @Value("${app.production:false}") boolean isProduction
   ) {
     this.articleRepository = articleRepository;
-    this.categoryRepository = categoryRepository;
+    this.categoryCatalog = categoryCatalog;
     this.userRepository = userRepository;
     this.paymentRepository = paymentRepository;
     this.paymentService = paymentService;
-    this.cloudinary = new Cloudinary(cloudinaryUrl);
+    this.promotionReadModel = promotionReadModel;
+    this.articleDetailCache = articleDetailCache;
+    this.articleSearchIndex = articleSearchIndex;
+    this.cloudinary = cloudinary;
+    this.cloudinaryGuard = resilienceRegistry.guard(ResilienceRegistry.CLOUDINARY);
     this.isProduction = isProduction;
   }
 
@@ -87,6 +108,9 @@ public class ArticleService {
 
       article.setCreatedBy(username);
       Article savedArticle = articleRepository.save(article);
+      // Admins may create it already published
+      articleDetailCache.invalidate(savedArticle.getId());
+      articleSearchIndex.index(savedArticle);
 
       if (user.getRole() == UserRole.USER && articleDTO.getPaymentId() != null) {
         paymentService.attachArticleToPayment(articleDTO.getPaymentId(), savedArticle.getId());
@@ -128,8 +152,10 @@ public class ArticleService {
     article.setHeaderImageUploadDate(articleDTO.getHeaderImageUploadDate());
 
     String categoryName = articleDTO.getCategory().getName();
-    Category category = categoryRepository.findByName(categoryName)
+    Category category = categoryCatalog.findByName(categoryName)
       .orElseThrow(() -> new RuntimeException("Category not found"));
+    // Catalogue entity attached as is: only its id is written (no SELECT) and, unlike a
+    // getReferenceById proxy, it serializes in the response
     article.setCategory(category);
     article.setCategoryName(categoryName);
     article.setCategorySlug(category.getSlug());
@@ -154,6 +180,28 @@ public class ArticleService {
     return articleRepository.findById(id);
   }
 
+  // Retrieves the public article detail as JSON, served from the cache when possible
+  public Optional<byte[]> getArticleDetailJson(Long id) {
+    return articleDetailCache.get(id);
+  }
+
+  // Versions of the public read models, used as ETags
+  public long getArticleVersion(Long id) {
+    return articleDetailCache.version(id);
+  }
+
+  public long getArticlesVersion() {
+    return articleDetailCache.version();
+  }
+
+  public long getSearchVersion() {
+    return articleSearchIndex.version();
+  }
+
+  public long getPromotionsVersion() {
+    return promotionReadModel.version();
+  }
+
   // Approves an article
   public Optional<Article> approveArticle(Long id) {
     Optional<Article> articleOpt = articleRepository.findById(id);
@@ -168,6 +216,9 @@ public class ArticleService {
       article.setPublishDate(LocalDate.now());
 
       Article updatedArticle = articleRepository.save(article);
+      promotionReadModel.invalidate();
+      articleDetailCache.invalidate(id);
+      articleSearchIndex.index(updatedArticle);
       return Optional.of(updatedArticle);
     }
     return Optional.empty();
@@ -193,6 +244,9 @@ public class ArticleService {
 
       // 🗑️ Eliminar el artículo
       articleRepository.delete(article);
+      promotionReadModel.invalidate();
+      articleDetailCache.invalidate(id);
+      articleSearchIndex.remove(id);
       return true;
 
     } catch (Exception e) {
@@ -208,7 +262,7 @@ public class ArticleService {
   public boolean deleteOrphanImage(String publicId) {
     try {
       @SuppressWarnings("unchecked")
-      Map<String, Object> result = cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
+      Map<String, Object> result = cloudinaryGuard.call(() -> cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap()));
       return "ok".equals(result.get("result"));
     } catch (Exception e) {
       if (!isProduction) {
@@ -226,15 +280,59 @@ public class ArticleService {
       if (article.getStatus() == ArticleStatus.DRAFT) {
         article.setStatus(ArticleStatus.PENDING_APPROVAL);
         Article updated = articleRepository.save(article);
+        articleDetailCache.invalidate(id);
         return Optional.of(updated);
       }
     }
     return Optional.empty();
   }
 
-  // Retrieves articles by status
-  public List<Article> getArticlesByStatus(ArticleStatus status) {
-    return articleRepository.findByStatus(status);
+  // Retrieves article summaries by status
+  public List<ArticleSummaryDTO> getArticlesByStatus(ArticleStatus status) {
+    return articleRepository.findSummariesByStatus(status);
+  }
+
+  // Retrieves one page of published articles, newest first, using a (publishDate, id) keyset cursor
+  public ArticlePage<ArticleSummaryDTO> getPublishedArticlesPage(String cursor, int limit) {
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    // One extra row tells us whether there is a next page
+    PageRequest window = PageRequest.of(0, pageSize + 1);
+
+    List<ArticleSummaryDTO> rows;
+    if (cursor == null || cursor.isBlank()) {
+      rows = articleRepository.findSummaryPage(ArticleStatus.PUBLISHED, window);
+    } else {
+      String[] position = decodeCursor(cursor);
+      rows = articleRepository.findSummaryPageAfter(
+        ArticleStatus.PUBLISHED, LocalDate.parse(position[0]), Long.parseLong(position[1]), window);
+    }
+
+    if (rows.size() <= pageSize) {
+      return new ArticlePage<>(rows, null);
+    }
+    List<ArticleSummaryDTO> items = rows.subList(0, pageSize);
+    ArticleSummaryDTO last = items.get(items.size() - 1);
+    return new ArticlePage<>(items, encodeCursor(last.getPublishDate(), last.getId()));
+  }
+
+  private static String encodeCursor(LocalDate publishDate, Long id) {
+    String raw = publishDate + "|" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String[] decodeCursor(String cursor) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      String[] position = raw.split("\\|");
+      if (position.length != 2) {
+        throw new IllegalArgumentException("Malformed cursor");
+      }
+      LocalDate.parse(position[0]);
+      Long.parseLong(position[1]);
+      return position;
+    } catch (RuntimeException e) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
   }
 
   // Updates an existing article
@@ -250,7 +348,7 @@ public class ArticleService {
         article.setHeaderImageUploadDate(articleDTO.getHeaderImageUploadDate());
 
         String categoryName = articleDTO.getCategory().getName();
-        Category category = categoryRepository.findByName(categoryName)
+        Category category = categoryCatalog.findByName(categoryName)
           .orElseThrow(() -> new RuntimeException("Category not found"));
         article.setCategory(category);
         article.setCategoryName(categoryName);
@@ -267,7 +365,11 @@ public class ArticleService {
           log.info("Updating article ID: {} with status: {}", id, articleDTO.getStatus());
         }
 
-        return articleRepository.save(article);
+        Article saved = articleRepository.save(article);
+        promotionReadModel.invalidate();
+        articleDetailCache.invalidate(id);
+        articleSearchIndex.index(saved);
+        return saved;
       });
     } catch (RuntimeException e) {
       if (!isProduction) {
@@ -278,21 +380,33 @@ public class ArticleService {
   }
 
   // Retrieves draft articles by user
-  public List<Article> getDraftsByUser(String username) {
-    return articleRepository.findByStatusAndCreatedBy(ArticleStatus.DRAFT, username);
+  public List<ArticleSummaryDTO> getDraftsByUser(String username) {
+    return articleRepository.findSummariesByStatusAndCreatedBy(ArticleStatus.DRAFT, username);
   }
 
   // Retrieves published articles by user
   public List<ArticleDTO> getPublishedArticlesByUser(String username) {
     try {
-      List<Article> articles = articleRepository.findByStatusAndCreatedBy(ArticleStatus.PUBLISHED, username);
+      List<Article> articles = articleRepository.findWithPromotionsByStatusAndCreatedBy(ArticleStatus.PUBLISHED, username);
+      if (articles.isEmpty()) {
+        return List.of();
+      }
+
+      // Latest completed payment per article, loaded in one query
+      Map<Long, Payment> latestPayments = paymentRepository
+        .findByArticleIdInAndStatus(articles.stream().map(Article::getId).toList(), PaymentStatus.COMPLETED)
+        .stream()
+        .filter(p -> p.getCompletedAt() != null)
+        .collect(Collectors.toMap(
+          p -> p.getArticle().getId(),
+          p -> p,
+          (p1, p2) -> p1.getCompletedAt().isAfter(p2.getCompletedAt()) ? p1 : p2
+        ));
 
       return articles.stream().map(article -> {
         ArticleDTO dto = mapToDTO(article);
 
-        paymentRepository.findByArticle(article).stream()
-          .filter(p -> "COMPLETED".equals(p.getStatus()))
-          .max((p1, p2) -> p1.getCompletedAt().compareTo(p2.getCompletedAt()))
+        Optional.ofNullable(latestPayments.get(article.getId()))
           .ifPresent(payment -> {
             dto.setPlanType(payment.getPlanType());
             dto.setExpirationAt(payment.getExpirationAt());
@@ -314,18 +428,18 @@ public class ArticleService {
   }
 
   // Retrieves pending articles by user
-  public List<Article> getPendingArticlesByUser(String username) {
-    return articleRepository.findByStatusAndCreatedBy(ArticleStatus.PENDING_APPROVAL, username);
+  public List<ArticleSummaryDTO> getPendingArticlesByUser(String username) {
+    return articleRepository.findSummariesByStatusAndCreatedBy(ArticleStatus.PENDING_APPROVAL, username);
   }
 
   // Deletes an orphan video from Cloudinary
   public boolean deleteOrphanVideo(String publicId) {
     try {
       @SuppressWarnings("unchecked")
-      Map<String, Object> result = cloudinary.uploader().destroy(
+      Map<String, Object> result = cloudinaryGuard.call(() -> cloudinary.uploader().destroy(
         publicId,
         Map.of("resource_type", "video")
-      );
+      ));
       return "ok".equals(result.get("result"));
     } catch (Exception e) {
       if (!isProduction) {
@@ -335,9 +449,23 @@ public class ArticleService {
     }
   }
 
+  // Searches the published articles, best match first
+  public List<ArticleSummaryDTO> searchPublishedArticles(String query, int limit) {
+    List<Long> ids = articleSearchIndex.search(query, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    // The index only ranks; the cards come from the database, so they are never staler than a list
+    Map<Long, ArticleSummaryDTO> summaries = articleRepository
+      .findSummariesByIdInAndStatus(ids, ArticleStatus.PUBLISHED)
+      .stream()
+      .collect(Collectors.toMap(ArticleSummaryDTO::getId, summary -> summary));
+    return ids.stream().map(summaries::get).filter(Objects::nonNull).toList();
+  }
+
   // Retrieves articles by category slug
-  public List<Article> getArticlesByCategorySlug(String slug) {
-    return articleRepository.findByCategorySlugIgnoreCaseAndStatus(slug, ArticleStatus.PUBLISHED);
+  public List<ArticleSummaryDTO> getArticlesByCategorySlug(String slug) {
+    return articleRepository.findSummariesByCategorySlugAndStatus(Category.normalizeSlug(slug), ArticleStatus.PUBLISHED);
   }
 
   // Rejects an article with a reason
@@ -353,6 +481,7 @@ public class ArticleService {
       article.setStatus(ArticleStatus.REJECTED);
       article.setRejectionReason(reason);
       Article updated = articleRepository.save(article);
+      articleDetailCache.invalidate(id);
 
       return Optional.of(updated);
     }
@@ -360,71 +489,27 @@ public class ArticleService {
   }
 
   // Retrieves rejected articles by user
-  public List<Article> getRejectedArticlesByUser(String username) {
-    return articleRepository.findByStatusAndCreatedBy(ArticleStatus.REJECTED, username);
-  }
-
-  // Retrieves promoted videos by type
-  public List<Article> getPromotedVideosByType(PromoteType type) {
-    return articleRepository.findByStatus(ArticleStatus.PUBLISHED).stream()
-      .filter(article -> article.getPromotions().stream()
-        .anyMatch(promotion ->
-          promotion.getPromoteType() == type &&
-            (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-        )
-      )
-      .toList();
+  public List<ArticleSummaryDTO> getRejectedArticlesByUser(String username) {
+    return articleRepository.findSummariesByStatusAndCreatedBy(ArticleStatus.REJECTED, username);
   }
 
-  // Retrieves promoted videos by category slug with rotation
-  public List<Article> getPromotedVideosByCategorySlug(String slug) {
-    List<Article> articles = articleRepository.findByCategorySlugIgnoreCaseAndStatus(slug, ArticleStatus.PUBLISHED)
-      .stream()
-      .filter(article -> article.getPromotions().stream()
-        .anyMatch(promotion ->
-          promotion.getPromoteType() == PromoteType.CATEGORY_SLIDER &&
-            (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-        )
-      )
-      .toList();
-
-    if (articles.isEmpty()) return articles;
-
-    int dayOfYear = LocalDate.now().getDayOfYear();
-    int rotationIndex = dayOfYear % articles.size();
-
-    List<Article> rotated = new ArrayList<>();
-    rotated.addAll(articles.subList(rotationIndex, articles.size()));
-    rotated.addAll(articles.subList(0, rotationIndex));
-
-    return rotated;
+  // Retrieves promoted video URLs by type with rotation
+  public List<String> getPromotedVideosByType(PromoteType type) {
+    return promotionReadModel.getVideos(type);
   }
 
-  // Retrieves promoted videos for main slider with rotation
-  public List<Article> getPromotedVideosForMainSlider() {
-    List<Article> articles = articleRepository.findByStatus(ArticleStatus.PUBLISHED).stream()
-      .filter(article -> article.getPromotions().stream()
-        .anyMatch(promotion ->
-          promotion.getPromoteType() == PromoteType.MAIN_SLIDER &&
-            (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-        )
-      )
-      .toList();
-
-    if (articles.isEmpty()) return articles;
-
-    int dayOfYear = LocalDate.now().getDayOfYear();
-    int rotationIndex = dayOfYear % articles.size();
-
-    List<Article> rotated = new ArrayList<>();
-    rotated.addAll(articles.subList(rotationIndex, articles.size()));
-    rotated.addAll(articles.subList(0, rotationIndex));
+  // Retrieves promoted video URLs by category slug with rotation
+  public List<String> getPromotedVideosByCategorySlug(String slug) {
+    return promotionReadModel.getCategoryVideos(slug);
+  }
 
-    return rotated;
+  // Retrieves promoted video URLs for main slider with rotation
+  public List<String> getPromotedVideosForMainSlider() {
+    return promotionReadModel.getVideos(PromoteType.MAIN_SLIDER);
   }
 
   // Maps article to DTO
-  public ArticleDTO mapToDTO(Article article) {
+  public static ArticleDTO mapToDTO(Article article) {
     ArticleDTO dto = new ArticleDTO();
 
     dto.setId(article.getId());
@@ -462,26 +547,6 @@ public class ArticleService {
 
   // Retrieves featured articles with rotation
   public List<ArticleDTO> getFeaturedArticlesRotated() {
-    List<Article> articles = articleRepository.findByStatus(ArticleStatus.PUBLISHED);
-
-    List<ArticleDTO> featured = articles.stream()
-      .map(this::mapToDTO)
-      .filter(dto -> dto.getActivePlans() != null && dto.getActivePlans().stream()
-        .anyMatch(plan -> !plan.isCancelled() &&
-          (plan.getPlanType().equals("MAIN_SLIDER") || plan.getPlanType().equals("CATEGORY_SLIDER")) &&
-          (plan.getExpirationAt() == null || plan.getExpirationAt().isAfter(LocalDateTime.now()))
-        )
-      ).toList();
-
-    if (featured.isEmpty()) return featured;
-
-    int dayOfYear = LocalDate.now().getDayOfYear();
-    int rotationIndex = dayOfYear % featured.size();
-
-    List<ArticleDTO> rotated = new ArrayList<>();
-    rotated.addAll(featured.subList(rotationIndex, featured.size()));
-    rotated.addAll(featured.subList(0, rotationIndex));
-
-    return rotated;
+    return promotionReadModel.getFeatured();
   }
 }
@@ -0,0 +1,156 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.repositories.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory snapshot of every category, indexed by id, name and slug.
+ * <p>
+ * Categories only change on admin edits, so reads never touch the database: the whole catalogue is
+ * loaded in one query and replaced atomically by {@link #refresh()} after each write. Name and slug
+ * lookups ignore case, like the MySQL collation the repository queries relied on. The categories
+ * handed out are shared between requests and must not be modified.
+ * </p>
+ */
+@Component
+public class CategoryCatalog {
+
+  private static final Logger log = LoggerFactory.getLogger(CategoryCatalog.class);
+
+  private final CategoryRepository categoryRepository;
+
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+  // Bumped on every write; a snapshot loaded before the latest write is never served
+  private final AtomicLong generation = new AtomicLong();
+  private final ReentrantLock loadLock = new ReentrantLock();
+
+  public CategoryCatalog(CategoryRepository categoryRepository) {
+    this.categoryRepository = categoryRepository;
+  }
+
+  public List<Category> findAll() {
+    return current().all();
+  }
+
+  public Optional<Category> findById(Long id) {
+    if (id == null) return Optional.empty();
+    return Optional.ofNullable(current().byId().get(id));
+  }
+
+  public Optional<Category> findByName(String name) {
+    if (name == null) return Optional.empty();
+    return Optional.ofNullable(current().byName().get(key(name)));
+  }
+
+  public Optional<Category> findBySlug(String slug) {
+    if (slug == null) return Optional.empty();
+    return Optional.ofNullable(current().bySlug().get(key(slug)));
+  }
+
+  // Version of the catalogue; moves forward on every category write
+  public long version() {
+    return generation.get();
+  }
+
+  /**
+   * Reloads the catalogue after a category write. Inside a transaction the reload waits for the
+   * commit so it never publishes data that may still be rolled back.
+   */
+  public void refresh() {
+    generation.incrementAndGet();
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          generation.incrementAndGet();
+          reloadQuietly();
+        }
+      });
+    } else {
+      reloadQuietly();
+    }
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot.get();
+    if (current != null && current.generation() == generation.get()) {
+      return current;
+    }
+    loadLock.lock();
+    try {
+      current = snapshot.get();
+      if (current != null && current.generation() == generation.get()) {
+        return current;
+      }
+      return load();
+    } finally {
+      loadLock.unlock();
+    }
+  }
+
+  private Snapshot load() {
+    long loadedAt = generation.get();
+    // Detached copies: the loaded entities may belong to the persistence context of the current request
+    List<Category> categories = categoryRepository.findAll().stream().map(CategoryCatalog::copyOf).toList();
+
+    Map<Long, Category> byId = new HashMap<>();
+    Map<String, Category> byName = new HashMap<>();
+    Map<String, Category> bySlug = new HashMap<>();
+    for (Category category : categories) {
+      byId.put(category.getId(), category);
+      if (category.getName() != null) byName.putIfAbsent(key(category.getName()), category);
+      if (category.getSlug() != null) bySlug.putIfAbsent(key(category.getSlug()), category);
+    }
+
+    Snapshot fresh = new Snapshot(loadedAt, categories, Map.copyOf(byId), Map.copyOf(byName), Map.copyOf(bySlug));
+    snapshot.set(fresh);
+    log.debug("Category catalogue loaded with {} categories", categories.size());
+    return fresh;
+  }
+
+  // Failures are not fatal here: the next read retries the load
+  private void reloadQuietly() {
+    try {
+      current();
+    } catch (RuntimeException e) {
+      log.warn("Category catalogue reload failed, retrying on next read: {}", e.getMessage());
+    }
+  }
+
+  private static Category copyOf(Category category) {
+    Category copy = new Category(category.getName(), category.getSlug());
+    copy.setId(category.getId());
+    copy.setCreatedAt(category.getCreatedAt());
+    copy.setDescription(category.getDescription());
+    copy.setEmoji(category.getEmoji());
+    copy.setHeaderImage(category.getHeaderImage());
+    return copy;
+  }
+
+  private static String key(String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+
+  private record Snapshot(
+    long generation,
+    List<Category> all,
+    Map<Long, Category> byId,
+    Map<String, Category> byName,
+    Map<String, Category> bySlug
+  ) {
+  }
+}
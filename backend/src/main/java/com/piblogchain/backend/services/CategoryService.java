@@ -19,13 +19,19 @@ public class CategoryService {
   private static final Logger log = LoggerFactory.getLogger(CategoryService.class);
 
   private final CategoryRepository categoryRepository;
+  private final CategoryCatalog categoryCatalog;
+  private final ArticleDetailCache articleDetailCache;
   private final boolean isProduction;
 
   public CategoryService(
     CategoryRepository categoryRepository,
+    CategoryCatalog categoryCatalog,
+    ArticleDetailCache articleDetailCache,
     @Value("${app.production:false}") boolean isProduction
   ) {
     this.categoryRepository = categoryRepository;
+    this.categoryCatalog = categoryCatalog;
+    this.articleDetailCache = articleDetailCache;
     this.isProduction = isProduction;
   }
 
@@ -48,6 +54,7 @@ public class CategoryService {
       category.setHeaderImage(dto.getHeaderImage());
 
       Category savedCategory = categoryRepository.save(category);
+      categoryCatalog.refresh();
       if (!isProduction) {
         log.info("Category created with name: {}, slug: {}", dto.getName(), dto.getSlug());
       }
@@ -60,10 +67,10 @@ public class CategoryService {
     }
   }
 
-  // Retrieves all categories
+  // Retrieves all categories from the in-memory catalogue
   public List<Category> getAllCategories() {
     try {
-      return categoryRepository.findAll();
+      return categoryCatalog.findAll();
     } catch (Exception e) {
       if (!isProduction) {
         log.error("Failed to retrieve categories: {}", e.getMessage());
@@ -78,7 +85,7 @@ public class CategoryService {
       if (id == null) {
         throw new IllegalArgumentException("Category ID is required");
       }
-      return categoryRepository.findById(id);
+      return categoryCatalog.findById(id);
     } catch (Exception e) {
       if (!isProduction) {
         log.error("Failed to retrieve category with ID: {}", id);
@@ -118,6 +125,9 @@ public class CategoryService {
         category.setHeaderImage(dto.getHeaderImage());
 
         Category updatedCategory = categoryRepository.save(category);
+        categoryCatalog.refresh();
+        // Cached articles embed their category
+        articleDetailCache.invalidateAll();
 
         if (!isProduction) {
           log.info("Category updated with ID: {}, slug: {}", id, dto.getSlug());
@@ -141,6 +151,8 @@ public class CategoryService {
       }
       if (categoryRepository.existsById(id)) {
         categoryRepository.deleteById(id);
+        categoryCatalog.refresh();
+        articleDetailCache.invalidateAll();
         if (!isProduction) {
           log.info("Category deleted with ID: {}", id);
         }
@@ -155,8 +167,13 @@ public class CategoryService {
     }
   }
 
+  // Version of the category catalogue, used as ETag
+  public long getCategoriesVersion() {
+    return categoryCatalog.version();
+  }
+
   public Optional<Category> getCategoryBySlug(String slug) {
-    return categoryRepository.findBySlug(slug);
+    return categoryCatalog.findBySlug(slug);
   }
 
 }
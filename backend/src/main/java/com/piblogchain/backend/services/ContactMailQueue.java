@@ -0,0 +1,189 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.dto.ContactRequest;
+import com.piblogchain.backend.enums.OutboundEmailStatus;
+import com.piblogchain.backend.models.OutboundEmail;
+import com.piblogchain.backend.repositories.OutboundEmailRepository;
+import com.piblogchain.backend.resilience.DependencyUnavailableException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Delivers contact form messages in the background.
+ * <p>
+ * Every message is first written to the {@code outbound_emails} spool, so accepted messages survive
+ * restarts, and its id is offered to a bounded in-memory queue drained by a small worker pool. Failed
+ * sends are retried with exponential backoff by a periodic sweep, which also picks up messages that
+ * did not fit in the queue or were left behind by a previous run.
+ * </p>
+ */
+@Service
+public class ContactMailQueue {
+
+  private static final Logger log = LoggerFactory.getLogger(ContactMailQueue.class);
+
+  private final OutboundEmailRepository outboundEmailRepository;
+  private final EmailService emailService;
+  private final BlockingQueue<Long> queue;
+  private final int workers;
+  private final int maxAttempts;
+  private final int maxPending;
+  private final Duration backoff;
+  private final Duration maxBackoff;
+  private final Duration claimDuration;
+  private final ExecutorService workerPool;
+
+  public ContactMailQueue(
+    OutboundEmailRepository outboundEmailRepository,
+    EmailService emailService,
+    @Value("${mail.queue.capacity:100}") int capacity,
+    @Value("${mail.queue.workers:2}") int workers,
+    @Value("${mail.queue.max-attempts:6}") int maxAttempts,
+    @Value("${mail.queue.max-pending:500}") int maxPending,
+    @Value("${mail.queue.backoff-seconds:30}") long backoffSeconds,
+    @Value("${mail.queue.max-backoff-seconds:3600}") long maxBackoffSeconds,
+    @Value("${mail.queue.claim-seconds:120}") long claimSeconds,
+    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+  ) {
+    this.outboundEmailRepository = outboundEmailRepository;
+    this.emailService = emailService;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.workers = workers;
+    this.maxAttempts = maxAttempts;
+    this.maxPending = maxPending;
+    this.backoff = Duration.ofSeconds(backoffSeconds);
+    this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+    this.claimDuration = Duration.ofSeconds(claimSeconds);
+
+    // In virtual-thread mode the workers are virtual too; the pool size still caps concurrent sends
+    ThreadFactory threadFactory = virtualThreads
+      ? Thread.ofVirtual().name("contact-mail-", 1).factory()
+      : Thread.ofPlatform().name("contact-mail-", 1).daemon(true).factory();
+    this.workerPool = Executors.newFixedThreadPool(Math.max(1, workers), threadFactory);
+  }
+
+  @PostConstruct
+  void start() {
+    for (int i = 0; i < workers; i++) {
+      workerPool.execute(this::work);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    // Messages still queued stay in the spool and are sent after the next start
+    workerPool.shutdownNow();
+  }
+
+  // Stores the message in the spool and hands it to the workers
+  public void enqueue(ContactRequest request) {
+    if (outboundEmailRepository.countByStatus(OutboundEmailStatus.PENDING) >= maxPending) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending messages, try again later");
+    }
+    OutboundEmail email = outboundEmailRepository.save(
+      new OutboundEmail(request.getName(), request.getEmail(), request.getMessage()));
+    if (!queue.offer(email.getId())) {
+      log.debug("Contact mail queue full, message {} left for the next sweep", email.getId());
+    }
+  }
+
+  // Re-queues spooled messages whose next attempt is due
+  @Scheduled(initialDelay = 10 * 1000, fixedDelayString = "${mail.queue.sweep-ms:30000}")
+  public void enqueueDue() {
+    int room = queue.remainingCapacity();
+    if (room == 0) return;
+    for (Long id : outboundEmailRepository.findDueIds(OutboundEmailStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, room))) {
+      if (!queue.contains(id) && !queue.offer(id)) {
+        break;
+      }
+    }
+  }
+
+  // Sends one spooled message unless another worker or instance already took it
+  void deliver(Long id) {
+    LocalDateTime now = LocalDateTime.now();
+    if (outboundEmailRepository.claim(id, OutboundEmailStatus.PENDING, now, now.plus(claimDuration)) == 0) {
+      return;
+    }
+    OutboundEmail email = outboundEmailRepository.findById(id).orElse(null);
+    if (email == null) return;
+
+    try {
+      emailService.sendEmail(toRequest(email));
+      outboundEmailRepository.delete(email);
+    } catch (DependencyUnavailableException e) {
+      postpone(email, e);
+    } catch (RuntimeException e) {
+      scheduleRetry(email, e);
+    }
+  }
+
+  // Rejected by the SMTP guard without being tried: wait for the circuit to let calls through again,
+  // without spending one of the message's attempts
+  private void postpone(OutboundEmail email, DependencyUnavailableException cause) {
+    Duration delay = cause.getRetryAfter().isZero() ? backoff : cause.getRetryAfter();
+    email.setClaimedUntil(null);
+    email.setNextAttemptAt(LocalDateTime.now().plus(delay));
+    outboundEmailRepository.save(email);
+    log.debug("Contact message {} postponed until {}: {}", email.getId(), email.getNextAttemptAt(), cause.getMessage());
+  }
+
+  private void scheduleRetry(OutboundEmail email, RuntimeException cause) {
+    int attempts = email.getAttempts() + 1;
+    email.setAttempts(attempts);
+    email.setClaimedUntil(null);
+    email.setLastError(truncate(cause.getMessage()));
+    if (attempts >= maxAttempts) {
+      email.setStatus(OutboundEmailStatus.FAILED);
+      log.error("Contact message {} could not be sent after {} attempts: {}", email.getId(), attempts, cause.getMessage());
+    } else {
+      Duration delay = backoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+      email.setNextAttemptAt(LocalDateTime.now().plus(delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay));
+      log.warn("Contact message {} failed (attempt {}), retrying at {}: {}",
+        email.getId(), attempts, email.getNextAttemptAt(), cause.getMessage());
+    }
+    outboundEmailRepository.save(email);
+  }
+
+  private void work() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        deliver(queue.take());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        // Spool unavailable: the message is still pending and the sweep will offer it again
+        log.error("Contact mail worker failed: {}", e.getMessage());
+      }
+    }
+  }
+
+  private static ContactRequest toRequest(OutboundEmail email) {
+    ContactRequest request = new ContactRequest();
+    request.setName(email.getSenderName());
+    request.setEmail(email.getSenderEmail());
+    request.setMessage(email.getMessage());
+    return request;
+  }
+
+  private static String truncate(String message) {
+    if (message == null) return null;
+    return message.length() <= 500 ? message : message.substring(0, 500);
+  }
+}
@@ -1,6 +1,7 @@
 package com.piblogchain.backend.services;
 
 import com.piblogchain.backend.dto.ContactRequest;
+import com.piblogchain.backend.resilience.ResilienceRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
@@ -13,6 +14,9 @@ public class EmailService {
   @Autowired
   private JavaMailSender mailSender;
 
+  @Autowired
+  private ResilienceRegistry resilienceRegistry;
+
   @Value("${MAIL_USERNAME}")
   private String from;
 
@@ -22,6 +26,15 @@ public class EmailService {
     message.setTo(from); // o un correo destino fijo
     message.setSubject("New Contact from " + request.getName());
     message.setText("Email: " + request.getEmail() + "\n\nMessage:\n" + request.getMessage());
-    mailSender.send(message);
+    try {
+      resilienceRegistry.guard(ResilienceRegistry.SMTP).call(() -> {
+        mailSender.send(message);
+        return null;
+      });
+    } catch (RuntimeException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
   }
 }
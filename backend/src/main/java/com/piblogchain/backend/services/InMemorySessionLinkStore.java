@@ -0,0 +1,98 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Session links kept in memory. Every code lives for the same TTL, so codes expire in the order they
+ * were created: a FIFO queue of creation times is enough to expire them in O(1) each, without a
+ * timing wheel. Reads also check the expiry, so a code never outlives its TTL between sweeps.
+ */
+@Component
+@ConditionalOnProperty(name = "session-links.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySessionLinkStore implements SessionLinkStore {
+
+  private record Entry(User user, Instant expiresAt) {
+  }
+
+  private record Expiry(String code, Instant expiresAt) {
+  }
+
+  private final Map<String, Entry> links = new ConcurrentHashMap<>();
+  private final Queue<Expiry> expiries = new ConcurrentLinkedQueue<>();
+  private final Duration ttl;
+  private final int maxEntries;
+  private final Clock clock;
+
+  @Autowired
+  public InMemorySessionLinkStore(
+    @Value("${session-links.ttl-minutes:10}") long ttlMinutes,
+    @Value("${session-links.max-entries:100000}") int maxEntries
+  ) {
+    this(Duration.ofMinutes(ttlMinutes), maxEntries, Clock.systemUTC());
+  }
+
+  InMemorySessionLinkStore(Duration ttl, int maxEntries, Clock clock) {
+    this.ttl = ttl;
+    this.maxEntries = maxEntries;
+    this.clock = clock;
+  }
+
+  @Override
+  public void create(String code) {
+    removeExpired();
+    if (links.size() >= maxEntries) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending login codes");
+    }
+    Instant expiresAt = clock.instant().plus(ttl);
+    links.put(code, new Entry(null, expiresAt));
+    expiries.add(new Expiry(code, expiresAt));
+  }
+
+  @Override
+  public boolean link(String code, User user) {
+    Instant now = clock.instant();
+    return links.computeIfPresent(code, (key, entry) ->
+      now.isBefore(entry.expiresAt()) ? new Entry(user, entry.expiresAt()) : null) != null;
+  }
+
+  @Override
+  public Optional<User> findUser(String code) {
+    Entry entry = links.get(code);
+    if (entry == null || !clock.instant().isBefore(entry.expiresAt())) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(entry.user());
+  }
+
+  @Override
+  public int removeExpired() {
+    Instant now = clock.instant();
+    int removed = 0;
+    Expiry head;
+    while ((head = expiries.peek()) != null && !now.isBefore(head.expiresAt())) {
+      if (expiries.remove(head) && links.remove(head.code()) != null) {
+        removed++;
+      }
+    }
+    return removed;
+  }
+
+  int size() {
+    return links.size();
+  }
+}
@@ -0,0 +1,70 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.SessionLink;
+import com.piblogchain.backend.models.User;
+import com.piblogchain.backend.repositories.SessionLinkRepository;
+import com.piblogchain.backend.utils.ChunkedDeleter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+// Session links in the session_links table, shared by every backend instance
+@Component
+@ConditionalOnProperty(name = "session-links.store", havingValue = "jpa")
+public class JpaSessionLinkStore implements SessionLinkStore {
+
+  private final SessionLinkRepository sessionLinkRepository;
+  private final ChunkedDeleter chunkedDeleter;
+  private final Duration ttl;
+
+  public JpaSessionLinkStore(
+    SessionLinkRepository sessionLinkRepository,
+    ChunkedDeleter chunkedDeleter,
+    @Value("${session-links.ttl-minutes:10}") long ttlMinutes
+  ) {
+    this.sessionLinkRepository = sessionLinkRepository;
+    this.chunkedDeleter = chunkedDeleter;
+    this.ttl = Duration.ofMinutes(ttlMinutes);
+  }
+
+  @Override
+  public void create(String code) {
+    sessionLinkRepository.save(new SessionLink(code));
+  }
+
+  @Override
+  public boolean link(String code, User user) {
+    Optional<SessionLink> link = findLive(code);
+    link.ifPresent(sessionLink -> {
+      sessionLink.setUser(user);
+      sessionLinkRepository.save(sessionLink);
+    });
+    return link.isPresent();
+  }
+
+  @Override
+  public Optional<User> findUser(String code) {
+    return findLive(code).map(SessionLink::getUser);
+  }
+
+  @Override
+  public int removeExpired() {
+    LocalDateTime cutoff = cutoff();
+    return chunkedDeleter.deleteAll(
+      chunk -> sessionLinkRepository.findExpiredIds(cutoff, chunk),
+      sessionLinkRepository::deleteByIds);
+  }
+
+  private Optional<SessionLink> findLive(String code) {
+    return sessionLinkRepository.findByCode(code)
+      .filter(link -> link.getCreatedAt().isAfter(cutoff()));
+  }
+
+  private LocalDateTime cutoff() {
+    return LocalDateTime.now().minus(ttl);
+  }
+}
@@ -13,20 +13,21 @@ import com.piblogchain.backend.repositories.ArticlePromotionRepository;
 import com.piblogchain.backend.repositories.ArticleRepository;
 import com.piblogchain.backend.repositories.CategoryRepository;
 import com.piblogchain.backend.repositories.PaymentRepository;
-import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 @Service
@@ -42,10 +43,11 @@ public class PaymentService {
   private final ArticleRepository articleRepository;
   private final CategoryRepository categoryRepository;
   private final ArticlePromotionRepository articlePromotionRepository;
+  private final PromotionReadModel promotionReadModel;
+  private final ArticleDetailCache articleDetailCache;
+  private final SlotReservationService slotReservationService;
+  private final PiPriceService piPriceService;
   private final boolean isProduction;
-  private Double cachedPiPriceUsd = null;
-  private LocalDateTime lastFetchTime = null;
-  private static final int CACHE_DURATION_SECONDS = 60;
 
 
   public PaymentService(
@@ -54,6 +56,10 @@ public class PaymentService {
     ArticleRepository articleRepository,
     CategoryRepository categoryRepository,
     ArticlePromotionRepository articlePromotionRepository,
+    PromotionReadModel promotionReadModel,
+    ArticleDetailCache articleDetailCache,
+    SlotReservationService slotReservationService,
+    PiPriceService piPriceService,
     @Value("${app.production:false}") boolean isProduction
   ) {
     this.env = env;
@@ -61,10 +67,15 @@ public class PaymentService {
     this.articleRepository = articleRepository;
     this.categoryRepository = categoryRepository;
     this.articlePromotionRepository = articlePromotionRepository;
+    this.promotionReadModel = promotionReadModel;
+    this.articleDetailCache = articleDetailCache;
+    this.slotReservationService = slotReservationService;
+    this.piPriceService = piPriceService;
     this.isProduction = isProduction;
   }
 
-  // Creates a new payment
+  // Creates a new payment and leases a slider slot for it (READ COMMITTED, see SlotReservationService)
+  @Transactional(isolation = Isolation.READ_COMMITTED)
   public Map<String, Object> createPayment(PaymentCreateRequest request) {
     try {
       if (request == null || request.getPaymentId() == null || request.getPaymentId().isBlank()) {
@@ -88,7 +99,19 @@ public class PaymentService {
       payment.setSandbox(env.acceptsProfiles("sandbox"));
       payment.setCreatedAt(LocalDateTime.now());
 
+      // The reserved category is kept on the payment so completion commits the same slot
+      PromoteType promoteType = PromoteType.valueOf(request.getPlanType().name());
+      if (promoteType == PromoteType.CATEGORY_SLIDER && request.getCategorySlug() != null && !request.getCategorySlug().isBlank()) {
+        payment.setCategorySlug(Category.normalizeSlug(request.getCategorySlug().trim()));
+      }
+
       Payment savedPayment = paymentRepository.save(payment);
+
+      // Without a category the CATEGORY_SLIDER slot is only checked when the payment completes
+      if (promoteType == PromoteType.MAIN_SLIDER || savedPayment.getCategorySlug() != null) {
+        slotReservationService.reserve(savedPayment.getPaymentId(), promoteType, savedPayment.getCategorySlug());
+      }
+
       if (!isProduction) {
         log.info("Payment created with ID: {}", savedPayment.getPaymentId());
       }
@@ -135,6 +158,7 @@ public class PaymentService {
   }
 
   // Completes a payment and associates it with an article
+  @Transactional(isolation = Isolation.READ_COMMITTED)
   public void completePayment(PaymentCompleteRequest request) {
     try {
       if (request == null || request.getPaymentId() == null || request.getPaymentId().isBlank()) {
@@ -156,10 +180,20 @@ public class PaymentService {
         case MAIN_SLIDER -> PromoteType.MAIN_SLIDER;
       };
 
+      // Category slider slots are counted by the article's category, so the article is placed in
+      // the category reserved with the payment
+      Category reservedCategory = payment.getCategorySlug() != null
+        ? categoryRepository.findBySlug(payment.getCategorySlug())
+          .orElseThrow(() -> new IllegalArgumentException("Category not found"))
+        : null;
+
       Article article;
       if (request.getArticleId() != null) {
         article = articleRepository.findById(request.getArticleId())
           .orElseThrow(() -> new IllegalArgumentException("Article not found"));
+        if (reservedCategory != null && !reservedCategory.getSlug().equalsIgnoreCase(article.getCategorySlug())) {
+          article.setCategory(reservedCategory);
+        }
       } else {
         article = new Article();
         article.setCreatedBy(payment.getUsername());
@@ -171,14 +205,14 @@ public class PaymentService {
         article.setDescription("");
         article.setContent("");
 
-        Category defaultCategory = categoryRepository.findBySlug("sin-categoria")
-          .orElseThrow(() -> new IllegalArgumentException("Default category not found"));
-        article.setCategory(defaultCategory);
+        Category category = reservedCategory != null
+          ? reservedCategory
+          : categoryRepository.findBySlug("sin-categoria")
+            .orElseThrow(() -> new IllegalArgumentException("Default category not found"));
+        article.setCategory(category);
       }
 
-      if (promoteType != PromoteType.STANDARD && !isSlotAvailable(promoteType, article.getCategory().getSlug())) {
-        throw new IllegalArgumentException("No slots available for plan: " + promoteType);
-      }
+      slotReservationService.commit(payment.getPaymentId(), promoteType, slotCategoryOf(article));
 
       payment.setArticle(article);
 
@@ -199,6 +233,8 @@ public class PaymentService {
       article.getPromotions().add(promotion);
       articleRepository.save(article);
       paymentRepository.save(payment);
+      promotionReadModel.invalidate();
+      articleDetailCache.invalidate(article.getId());
 
       if (!isProduction) {
         log.info("Payment completed with ID: {}, article ID: {}", request.getPaymentId(), article.getId());
@@ -211,6 +247,34 @@ public class PaymentService {
     }
   }
 
+  // Gives back the slot leased by a payment the user cancelled or that failed in the wallet
+  @Transactional
+  public void cancelPayment(String paymentId, String username) {
+    try {
+      if (paymentId == null || paymentId.isBlank()) {
+        throw new IllegalArgumentException("Payment ID is required");
+      }
+
+      Payment payment = findPaymentOrThrow(paymentId);
+      if (username == null || !username.equals(payment.getUsername())) {
+        throw new IllegalArgumentException("Payment belongs to another user");
+      }
+      if (payment.getStatus() == PaymentStatus.COMPLETED) {
+        throw new IllegalArgumentException("Payment already completed");
+      }
+
+      slotReservationService.release(paymentId);
+      if (!isProduction) {
+        log.info("Payment cancelled with ID: {}", paymentId);
+      }
+    } catch (Exception e) {
+      if (!isProduction) {
+        log.error("Failed to cancel payment: {}", e.getMessage());
+      }
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to cancel payment");
+    }
+  }
+
   // Attaches an article to a payment
   public void attachArticleToPayment(String paymentId, Long articleId) {
     try {
@@ -298,6 +362,11 @@ public class PaymentService {
   }
 
 
+  // Category slider slots are keyed by the category the promoted article is in
+  private static String slotCategoryOf(Article article) {
+    return article.getCategory() != null ? article.getCategory().getSlug() : null;
+  }
+
   // Finds a payment by ID or throws an exception
   private Payment findPaymentOrThrow(String paymentId) {
     return paymentRepository.findByPaymentId(paymentId)
@@ -349,48 +418,6 @@ public class PaymentService {
     }
   }
 
-  // Checks slot availability for a promotion type
-  public boolean isSlotAvailable(PromoteType promoteType, String categorySlug) {
-    try {
-      if (promoteType == null) {
-        throw new IllegalArgumentException("Promotion type is required");
-      }
-      if (promoteType == PromoteType.CATEGORY_SLIDER && (categorySlug == null || categorySlug.isBlank())) {
-        throw new IllegalArgumentException("Category slug is required for CATEGORY_SLIDER");
-      }
-
-      if (promoteType == PromoteType.MAIN_SLIDER) {
-        long count = articleRepository.findByStatus(ArticleStatus.PUBLISHED)
-          .stream()
-          .filter(article -> article.getPromotions().stream()
-            .anyMatch(promotion ->
-              promotion.getPromoteType() == PromoteType.MAIN_SLIDER &&
-                (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-            )
-          )
-          .count();
-        return count < 7;
-      } else if (promoteType == PromoteType.CATEGORY_SLIDER) {
-        long count = articleRepository.findByCategorySlugIgnoreCaseAndStatus(categorySlug, ArticleStatus.PUBLISHED)
-          .stream()
-          .filter(article -> article.getPromotions().stream()
-            .anyMatch(promotion ->
-              promotion.getPromoteType() == PromoteType.CATEGORY_SLIDER &&
-                (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-            )
-          )
-          .count();
-        return count < 7;
-      }
-      return true;
-    } catch (Exception e) {
-      if (!isProduction) {
-        log.error("Failed to check slot availability: {}", e.getMessage());
-      }
-      throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to check slot availability");
-    }
-  }
-
   // Retrieves slot availability details
   public Map<String, Object> getSlotAvailability(PromoteType promoteType, String categorySlug) {
     try {
@@ -401,32 +428,18 @@ public class PaymentService {
         throw new IllegalArgumentException("Category slug is required for CATEGORY_SLIDER");
       }
 
-      final int totalSlots = (promoteType == PromoteType.STANDARD) ? Integer.MAX_VALUE : 7;
+      final int totalSlots = (promoteType == PromoteType.STANDARD) ? Integer.MAX_VALUE : SlotReservationService.SLIDER_SLOTS;
       long usedSlots = 0;
       String categoryName = null;
 
       PlanType planType = PlanType.valueOf(promoteType.name());
       double price = getPlanPrice(planType);
 
-      if (promoteType == PromoteType.MAIN_SLIDER) {
-        usedSlots = articleRepository.findByStatus(ArticleStatus.PUBLISHED).stream()
-          .filter(article -> article.getPromotions().stream()
-            .anyMatch(promotion ->
-              promotion.getPromoteType() == promoteType &&
-                (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-            )
-          )
-          .count();
-      } else if (promoteType == PromoteType.CATEGORY_SLIDER) {
-        usedSlots = articleRepository.findByCategorySlugIgnoreCaseAndStatus(categorySlug, ArticleStatus.PUBLISHED).stream()
-          .filter(article -> article.getPromotions().stream()
-            .anyMatch(promotion ->
-              promotion.getPromoteType() == promoteType &&
-                (promotion.getExpirationAt() == null || promotion.getExpirationAt().isAfter(LocalDateTime.now()))
-            )
-          )
-          .count();
-        Category category = categoryRepository.findBySlug(categorySlug)
+      if (promoteType != PromoteType.STANDARD) {
+        usedSlots = slotReservationService.countUsedSlots(promoteType, categorySlug);
+      }
+      if (promoteType == PromoteType.CATEGORY_SLIDER) {
+        Category category = categoryRepository.findBySlug(Category.normalizeSlug(categorySlug))
           .orElseThrow(() -> new IllegalArgumentException("Category not found"));
         categoryName = category.getName();
       }
@@ -450,7 +463,38 @@ public class PaymentService {
     }
   }
 
+  // Retrieves category slider availability for every category in one aggregate query
+  public List<Map<String, Object>> getCategorySlotAvailability() {
+    try {
+      Map<String, Long> usedByCategory = slotReservationService.countUsedCategorySlots();
+      double price = getPlanPrice(PlanType.CATEGORY_SLIDER);
+
+      return categoryRepository.findAll().stream()
+        .map(category -> {
+          long usedSlots = usedByCategory.getOrDefault(category.getSlug().toLowerCase(Locale.ROOT), 0L);
+          int remainingSlots = (int) Math.max(0, SlotReservationService.SLIDER_SLOTS - usedSlots);
+
+          Map<String, Object> availability = new HashMap<>();
+          availability.put("categorySlug", category.getSlug());
+          availability.put("categoryName", category.getName());
+          availability.put("available", remainingSlots > 0);
+          availability.put("usedSlots", usedSlots);
+          availability.put("remainingSlots", remainingSlots);
+          availability.put("totalSlots", SlotReservationService.SLIDER_SLOTS);
+          availability.put("price", price);
+          return availability;
+        })
+        .toList();
+    } catch (Exception e) {
+      if (!isProduction) {
+        log.error("Failed to retrieve category slot availability: {}", e.getMessage());
+      }
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Failed to retrieve category slot availability");
+    }
+  }
+
   // Activates a plan for an article
+  @Transactional(isolation = Isolation.READ_COMMITTED)
   public Map<String, Object> activatePlan(ActivatePlanRequest request) {
     try {
       if (request == null || request.getArticleId() == null) {
@@ -460,16 +504,11 @@ public class PaymentService {
         throw new IllegalArgumentException("Plan type is required");
       }
       PromoteType promoteType = PromoteType.valueOf(request.getPlanType());
-      if (promoteType == PromoteType.CATEGORY_SLIDER && (request.getCategorySlug() == null || request.getCategorySlug().isBlank())) {
-        throw new IllegalArgumentException("Category slug is required for CATEGORY_SLIDER");
-      }
 
       Article article = articleRepository.findById(request.getArticleId())
         .orElseThrow(() -> new IllegalArgumentException("Article not found"));
 
-      if (promoteType != PromoteType.STANDARD && !isSlotAvailable(promoteType, request.getCategorySlug())) {
-        throw new IllegalArgumentException("No slots available for plan: " + promoteType);
-      }
+      slotReservationService.acquire(promoteType, slotCategoryOf(article));
 
       LocalDateTime expirationAt = LocalDateTime.now().plusDays(30);
 
@@ -493,6 +532,8 @@ public class PaymentService {
 
       articleRepository.save(article);
       paymentRepository.save(payment);
+      promotionReadModel.invalidate();
+      articleDetailCache.invalidate(article.getId());
 
       Map<String, Object> response = new HashMap<>();
       response.put("message", "Plan activated successfully.");
@@ -530,6 +571,8 @@ public class PaymentService {
       });
 
       articleRepository.save(article);
+      promotionReadModel.invalidate();
+      articleDetailCache.invalidate(articleId);
       if (!isProduction) {
         log.info("Subscription cancelled for article ID: {}, plan: {}", articleId, planType);
       }
@@ -541,7 +584,8 @@ public class PaymentService {
     }
   }
 
-  // Activates a plan without payment
+  // Activates a plan without payment; slider plans still need a free slot
+  @Transactional(isolation = Isolation.READ_COMMITTED)
   public void activateWithoutPayment(ActivatePlanRequest request) {
     try {
       if (request == null || request.getArticleId() == null) {
@@ -554,6 +598,7 @@ public class PaymentService {
       Article article = articleRepository.findById(request.getArticleId())
         .orElseThrow(() -> new IllegalArgumentException("Article not found"));
       PromoteType promoteType = PromoteType.valueOf(request.getPlanType());
+      slotReservationService.acquire(promoteType, slotCategoryOf(article));
       LocalDateTime expirationAt = LocalDateTime.now().plusMonths(1);
 
       ArticlePromotion promotion = new ArticlePromotion();
@@ -563,6 +608,8 @@ public class PaymentService {
       promotion.setCancelled(false);
 
       articlePromotionRepository.save(promotion);
+      promotionReadModel.invalidate();
+      articleDetailCache.invalidate(article.getId());
       if (!isProduction) {
         log.info("Plan activated without payment for article ID: {}, plan: {}", request.getArticleId(), request.getPlanType());
       }
@@ -574,42 +621,19 @@ public class PaymentService {
     }
   }
 
+  // Current PI/USD price, served from the shared price cache
   public double getCurrentPiPriceUSD() {
-    LocalDateTime now = LocalDateTime.now();
-
-    // Si tenemos un precio en caché y no ha expirado, lo devolvemos
-    if (cachedPiPriceUsd != null && lastFetchTime != null &&
-      lastFetchTime.plusSeconds(CACHE_DURATION_SECONDS).isAfter(now)) {
-      return cachedPiPriceUsd;
-    }
-
-    // Si no, lo pedimos de nuevo
-    String url = "https://www.okx.com/api/v5/market/ticker?instId=PI-USD";
-    try {
-      RestTemplate restTemplate = new RestTemplate();
-      Map<String, Object> response = restTemplate.getForObject(url, Map.class);
-      List<Map<String, String>> data = (List<Map<String, String>>) response.get("data");
-      double price = Double.parseDouble(data.get(0).get("last"));
-
-      // Guardamos en la caché
-      cachedPiPriceUsd = price;
-      lastFetchTime = now;
-
-      return price;
-    } catch (Exception e) {
-      if (!isProduction) {
-        log.error("Error fetching Pi price: {}", e.getMessage());
-      }
-      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cannot fetch current Pi price");
-    }
+    return piPriceService.getPrice().usd();
   }
 
 
   public Map<String, Object> getPlanPricesInUsd() {
-    double piPrice = getCurrentPiPriceUSD();
+    PiPriceService.PiPrice price = piPriceService.getPrice();
+    double piPrice = price.usd();
 
     Map<String, Object> prices = new HashMap<>();
     prices.put("piPriceUsd", roundUp(piPrice, 4));
+    prices.put("stale", price.stale());
     prices.put("STANDARD", roundUp(3.5 / piPrice, 2));
     prices.put("CATEGORY_SLIDER", roundUp(25.0 / piPrice, 2));
     prices.put("MAIN_SLIDER", roundUp(35.0 / piPrice, 2));
@@ -0,0 +1,164 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.config.AppConfig;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cached PI/USD price from OKX.
+ * <p>
+ * Only one fetch is in flight at a time; concurrent callers wait on it instead of calling OKX
+ * themselves. A price close to expiry is refreshed in the background while the cached value keeps
+ * being served, and when OKX fails the last good price is returned flagged as stale (up to
+ * {@code pi.price.max-stale-seconds}).
+ * </p>
+ */
+@Service
+public class PiPriceService {
+
+  private static final Logger log = LoggerFactory.getLogger(PiPriceService.class);
+
+  private static final String OKX_TICKER_URL = "https://www.okx.com/api/v5/market/ticker?instId=PI-USD";
+
+  private final RestTemplate restTemplate;
+  private final Duration ttl;
+  private final Duration refreshAhead;
+  private final Duration maxStale;
+  private final Duration fetchTimeout;
+  private final Duration retryAfter;
+
+  private final AtomicReference<PiPrice> lastGood = new AtomicReference<>();
+  private final AtomicReference<CompletableFuture<PiPrice>> inFlight = new AtomicReference<>();
+  private volatile Instant lastFailure = Instant.EPOCH;
+  private final ExecutorService fetcher = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "pi-price-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public PiPriceService(
+    @Qualifier(AppConfig.OKX_CLIENT) RestTemplate restTemplate,
+    @Value("${pi.price.ttl-seconds:60}") long ttlSeconds,
+    @Value("${pi.price.refresh-ahead-seconds:15}") long refreshAheadSeconds,
+    @Value("${pi.price.max-stale-seconds:3600}") long maxStaleSeconds,
+    @Value("${pi.price.fetch-timeout-seconds:5}") long fetchTimeoutSeconds,
+    @Value("${pi.price.retry-after-seconds:10}") long retryAfterSeconds
+  ) {
+    this.restTemplate = restTemplate;
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.refreshAhead = Duration.ofSeconds(Math.min(refreshAheadSeconds, ttlSeconds));
+    this.maxStale = Duration.ofSeconds(maxStaleSeconds);
+    this.fetchTimeout = Duration.ofSeconds(fetchTimeoutSeconds);
+    this.retryAfter = Duration.ofSeconds(retryAfterSeconds);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    fetcher.shutdownNow();
+  }
+
+  /**
+   * Price snapshot. {@code stale} is true when OKX could not be reached and the value is older than
+   * the cache TTL.
+   */
+  public record PiPrice(double usd, Instant fetchedAt, boolean stale) {
+
+    PiPrice asStale() {
+      return new PiPrice(usd, fetchedAt, true);
+    }
+  }
+
+  // Retrieves the current price, fetching it only when the cached one has expired
+  public PiPrice getPrice() {
+    Instant now = Instant.now();
+    PiPrice current = lastGood.get();
+
+    if (current != null && age(current, now).compareTo(ttl) < 0) {
+      if (age(current, now).compareTo(ttl.minus(refreshAhead)) >= 0) {
+        refreshAsync();
+      }
+      return current;
+    }
+
+    // While OKX is failing, callers get the stale price instead of waiting on a new fetch each time
+    if (current != null && Duration.between(lastFailure, now).compareTo(retryAfter) < 0
+      && age(current, now).compareTo(maxStale) < 0) {
+      return current.asStale();
+    }
+
+    try {
+      return refreshAsync().get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return staleOrFail(current, now, e);
+    } catch (Exception e) {
+      return staleOrFail(current, now, e);
+    }
+  }
+
+  private PiPrice staleOrFail(PiPrice current, Instant now, Exception cause) {
+    if (current != null && age(current, now).compareTo(maxStale) < 0) {
+      log.warn("Pi price refresh failed, serving price fetched at {}: {}", current.fetchedAt(), cause.getMessage());
+      return current.asStale();
+    }
+    log.error("Error fetching Pi price: {}", cause.getMessage());
+    throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cannot fetch current Pi price");
+  }
+
+  // Starts a fetch unless one is already running; concurrent callers share it
+  private CompletableFuture<PiPrice> refreshAsync() {
+    while (true) {
+      CompletableFuture<PiPrice> existing = inFlight.get();
+      if (existing != null) {
+        return existing;
+      }
+      CompletableFuture<PiPrice> created = new CompletableFuture<>();
+      if (inFlight.compareAndSet(null, created)) {
+        fetcher.execute(() -> {
+          // inFlight is cleared before completing so that callers woken by this fetch never get it back
+          try {
+            PiPrice fresh = new PiPrice(fetchPrice(), Instant.now(), false);
+            lastGood.set(fresh);
+            inFlight.compareAndSet(created, null);
+            created.complete(fresh);
+          } catch (Exception e) {
+            lastFailure = Instant.now();
+            inFlight.compareAndSet(created, null);
+            created.completeExceptionally(e);
+          }
+        });
+        return created;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private double fetchPrice() {
+    Map<String, Object> response = restTemplate.getForObject(OKX_TICKER_URL, Map.class);
+    if (response == null || !(response.get("data") instanceof List<?> data) || data.isEmpty()) {
+      throw new IllegalStateException("Empty ticker response from OKX");
+    }
+    return Double.parseDouble(((Map<String, String>) data.get(0)).get("last"));
+  }
+
+  private static Duration age(PiPrice price, Instant now) {
+    return Duration.between(price.fetchedAt(), now);
+  }
+}
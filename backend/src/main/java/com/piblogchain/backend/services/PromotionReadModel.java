@@ -0,0 +1,239 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.dto.ArticleDTO;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.ArticlePromotion;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory read model for the featured cards and the promoted video sliders.
+ * <p>
+ * The lists are stored already rotated and are only rebuilt when a promotion is written, when the
+ * next promotion expires, or at midnight when the daily rotation moves on. Between rebuilds every
+ * read is served from memory.
+ * </p>
+ */
+@Component
+public class PromotionReadModel {
+
+  private static final Logger log = LoggerFactory.getLogger(PromotionReadModel.class);
+
+  private static final List<PromoteType> SLIDER_TYPES = List.of(PromoteType.MAIN_SLIDER, PromoteType.CATEGORY_SLIDER);
+  private static final List<Boolean> ANY_CANCELLED_STATE = List.of(false, true);
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(30);
+
+  private final ArticleRepository articleRepository;
+
+  private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+  private final AtomicLong snapshotVersion = new AtomicLong();
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+  private final ScheduledExecutorService rebuilder;
+  private ScheduledFuture<?> expiryRebuild;
+  // Only touched on the rebuilder thread
+  private ScheduledFuture<?> retryRebuild;
+
+  public PromotionReadModel(
+    ArticleRepository articleRepository,
+    @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads
+  ) {
+    this.articleRepository = articleRepository;
+    this.rebuilder = Executors.newSingleThreadScheduledExecutor(virtualThreads
+      ? Thread.ofVirtual().name("promotion-read-model").factory()
+      : Thread.ofPlatform().name("promotion-read-model").daemon(true).factory());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    rebuilder.shutdownNow();
+  }
+
+  // Retrieves the rotated featured articles
+  public List<ArticleDTO> getFeatured() {
+    return current().featured();
+  }
+
+  // Retrieves the rotated video URLs of every live promotion of a type
+  public List<String> getVideos(PromoteType type) {
+    return current().videosByType().getOrDefault(type, List.of());
+  }
+
+  // Retrieves the rotated category slider video URLs of a category
+  public List<String> getCategoryVideos(String slug) {
+    if (slug == null) return List.of();
+    return current().videosByCategory().getOrDefault(slug.toLowerCase(Locale.ROOT), List.of());
+  }
+
+  // Version of the current lists; changes with every rebuild, including the daily rotation
+  public long version() {
+    return current().version();
+  }
+
+  /**
+   * Rebuilds the read model after a promotion or promoted article changes. Inside a transaction the
+   * rebuild waits for the commit so it never publishes data that may still be rolled back.
+   */
+  public void invalidate() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          rebuilder.execute(PromotionReadModel.this::rebuildInBackground);
+        }
+      });
+    } else {
+      rebuilder.execute(this::rebuildInBackground);
+    }
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot.get();
+    if (current != null && LocalDateTime.now().isBefore(current.validUntil())) {
+      return current;
+    }
+    try {
+      return rebuild(false);
+    } catch (RuntimeException e) {
+      if (current == null) throw e;
+      log.warn("Promotion read model rebuild failed, serving snapshot built for {}: {}", current.validUntil(), e.getMessage());
+      return current;
+    }
+  }
+
+  // Reloads the live promotions in one query and publishes a new snapshot
+  private Snapshot rebuild(boolean force) {
+    rebuildLock.lock();
+    try {
+      return rebuildLocked(force);
+    } finally {
+      rebuildLock.unlock();
+    }
+  }
+
+  private Snapshot rebuildLocked(boolean force) {
+    LocalDateTime now = LocalDateTime.now();
+    Snapshot current = snapshot.get();
+    if (!force && current != null && now.isBefore(current.validUntil())) {
+      return current;
+    }
+
+    List<Article> articles = articleRepository.findWithPromotionsByLivePromotion(
+      ArticleStatus.PUBLISHED, SLIDER_TYPES, ANY_CANCELLED_STATE, now);
+
+    List<ArticleDTO> featured = new ArrayList<>();
+    Map<PromoteType, List<String>> videosByType = new EnumMap<>(PromoteType.class);
+    Map<String, List<String>> videosByCategory = new HashMap<>();
+    LocalDateTime validUntil = LocalDate.now().plusDays(1).atStartOfDay();
+
+    for (Article article : articles) {
+      boolean inMainSlider = false;
+      boolean inCategorySlider = false;
+      boolean isFeatured = false;
+      for (ArticlePromotion promotion : article.getPromotions()) {
+        LocalDateTime expirationAt = promotion.getExpirationAt();
+        if (expirationAt != null && !expirationAt.isAfter(now)) continue;
+        if (expirationAt != null && expirationAt.isBefore(validUntil)) {
+          validUntil = expirationAt;
+        }
+        // Sliders keep showing cancelled promotions until they expire; featured cards do not
+        inMainSlider |= promotion.getPromoteType() == PromoteType.MAIN_SLIDER;
+        inCategorySlider |= promotion.getPromoteType() == PromoteType.CATEGORY_SLIDER;
+        isFeatured |= SLIDER_TYPES.contains(promotion.getPromoteType()) && !promotion.isCancelled();
+      }
+
+      if (inMainSlider) {
+        videosByType.computeIfAbsent(PromoteType.MAIN_SLIDER, type -> new ArrayList<>()).add(article.getPromoVideo());
+      }
+      if (inCategorySlider) {
+        videosByType.computeIfAbsent(PromoteType.CATEGORY_SLIDER, type -> new ArrayList<>()).add(article.getPromoVideo());
+        if (article.getCategorySlug() != null) {
+          String slug = article.getCategorySlug().toLowerCase(Locale.ROOT);
+          videosByCategory.computeIfAbsent(slug, key -> new ArrayList<>()).add(article.getPromoVideo());
+        }
+      }
+      if (isFeatured) {
+        featured.add(ArticleService.mapToDTO(article));
+      }
+    }
+
+    videosByType.replaceAll((type, videos) -> rotateByDayOfYear(videos));
+    videosByCategory.replaceAll((slug, videos) -> rotateByDayOfYear(videos));
+    Snapshot fresh = new Snapshot(snapshotVersion.incrementAndGet(), rotateByDayOfYear(featured), videosByType, videosByCategory, validUntil);
+    snapshot.set(fresh);
+
+    // Only the latest snapshot's expiry matters; invalidation rebuilds are never cancelled
+    if (expiryRebuild != null) {
+      expiryRebuild.cancel(false);
+    }
+    expiryRebuild = rebuilder.schedule(
+      this::rebuildInBackground, Math.max(0, Duration.between(LocalDateTime.now(), validUntil).toMillis()), TimeUnit.MILLISECONDS);
+    log.debug("Promotion read model rebuilt with {} featured articles, valid until {}", featured.size(), validUntil);
+    return fresh;
+  }
+
+  /**
+   * Forced rebuild on the background thread, retried later if the database is unavailable. There is
+   * at most one pending retry: failures while it waits replace it instead of starting more retry loops.
+   */
+  private void rebuildInBackground() {
+    if (retryRebuild != null) {
+      retryRebuild.cancel(false);
+      retryRebuild = null;
+    }
+    try {
+      rebuild(true);
+    } catch (RuntimeException e) {
+      log.warn("Promotion read model rebuild failed, retrying in {}s: {}", RETRY_DELAY.toSeconds(), e.getMessage());
+      retryRebuild = rebuilder.schedule(this::rebuildInBackground, RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  // Rotates a list so that its starting element changes every day
+  private static <T> List<T> rotateByDayOfYear(List<T> items) {
+    if (items.isEmpty()) return List.of();
+
+    int dayOfYear = LocalDate.now().getDayOfYear();
+    int rotationIndex = dayOfYear % items.size();
+
+    List<T> rotated = new ArrayList<>();
+    rotated.addAll(items.subList(rotationIndex, items.size()));
+    rotated.addAll(items.subList(0, rotationIndex));
+
+    return Collections.unmodifiableList(rotated);
+  }
+
+  private record Snapshot(
+    long version,
+    List<ArticleDTO> featured,
+    Map<PromoteType, List<String>> videosByType,
+    Map<String, List<String>> videosByCategory,
+    LocalDateTime validUntil
+  ) {
+  }
+}
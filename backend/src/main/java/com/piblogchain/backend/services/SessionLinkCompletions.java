@@ -0,0 +1,82 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Single place where a QR login code is announced as linked. Completing a code pushes the user to
+ * the {@code /topic/session/{code}} STOMP subscribers and wakes every long-poll waiting on it, so
+ * both transports see the same event.
+ */
+@Component
+public class SessionLinkCompletions {
+
+  private final SimpMessagingTemplate messagingTemplate;
+  private final int maxWaiters;
+  private final Map<String, Set<Consumer<User>>> waiters = new ConcurrentHashMap<>();
+  private final AtomicInteger waiterCount = new AtomicInteger();
+
+  public SessionLinkCompletions(
+    SimpMessagingTemplate messagingTemplate,
+    @Value("${session-links.long-poll.max-waiters:10000}") int maxWaiters
+  ) {
+    this.messagingTemplate = messagingTemplate;
+    this.maxWaiters = maxWaiters;
+  }
+
+  /**
+   * Registers a listener called once when the code is linked. The returned handle unregisters it and
+   * must be run when the waiter goes away (timeout, disconnect).
+   */
+  public Runnable await(String code, Consumer<User> listener) {
+    // Registered and counted atomically with complete(), which takes the whole set out of the map
+    waiters.compute(code, (key, listeners) -> {
+      if (waiterCount.incrementAndGet() > maxWaiters) {
+        waiterCount.decrementAndGet();
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many pending status requests");
+      }
+      Set<Consumer<User>> registered = listeners != null ? listeners : ConcurrentHashMap.newKeySet();
+      if (!registered.add(listener)) {
+        waiterCount.decrementAndGet();
+      }
+      return registered;
+    });
+    return () -> remove(code, listener);
+  }
+
+  // Announces the link to the WebSocket subscribers and to the long-poll waiters
+  public void complete(String code, User user) {
+    messagingTemplate.convertAndSend("/topic/session/" + code, Map.of(
+      "username", user.getUsername(),
+      "piId", user.getPiId()
+    ));
+
+    Set<Consumer<User>> listeners = waiters.remove(code);
+    if (listeners == null) return;
+    waiterCount.addAndGet(-listeners.size());
+    listeners.forEach(listener -> listener.accept(user));
+  }
+
+  int waiting() {
+    return waiterCount.get();
+  }
+
+  private void remove(String code, Consumer<User> listener) {
+    waiters.computeIfPresent(code, (key, listeners) -> {
+      if (listeners.remove(listener)) {
+        waiterCount.decrementAndGet();
+      }
+      return listeners.isEmpty() ? null : listeners;
+    });
+  }
+}
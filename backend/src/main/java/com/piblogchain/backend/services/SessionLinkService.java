@@ -1,43 +1,38 @@
 package com.piblogchain.backend.services;
 
-import com.piblogchain.backend.models.SessionLink;
 import com.piblogchain.backend.models.User;
-import com.piblogchain.backend.repositories.SessionLinkRepository;
 import com.piblogchain.backend.repositories.UserRepository;
 import com.piblogchain.backend.utils.PiNetworkValidator;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 @Service
 public class SessionLinkService {
 
-  private final SessionLinkRepository sessionLinkRepository;
+  private final SessionLinkStore sessionLinkStore;
   private final UserRepository userRepository;
-  private final SimpMessagingTemplate messagingTemplate;
+  private final SessionLinkCompletions completions;
   @Autowired
   private PiNetworkValidator piNetworkValidator;
 
   @Autowired
   public SessionLinkService(
-    SessionLinkRepository sessionLinkRepository,
+    SessionLinkStore sessionLinkStore,
     UserRepository userRepository,
-    SimpMessagingTemplate messagingTemplate
+    SessionLinkCompletions completions
   ) {
-    this.sessionLinkRepository = sessionLinkRepository;
+    this.sessionLinkStore = sessionLinkStore;
     this.userRepository = userRepository;
-    this.messagingTemplate = messagingTemplate;
+    this.completions = completions;
   }
 
   public String createSessionCode() {
     String code = UUID.randomUUID().toString();
-    sessionLinkRepository.save(new SessionLink(code));
+    sessionLinkStore.create(code);
     return code;
   }
 
@@ -45,20 +40,10 @@ public class SessionLinkService {
     String piId = piNetworkValidator.extractPiId(accessToken);
     if (piId == null) return false;
 
-    Optional<SessionLink> optionalLink = sessionLinkRepository.findByCode(code);
     Optional<User> optionalUser = userRepository.findByPiId(piId);
 
-    if (optionalLink.isPresent() && optionalUser.isPresent()) {
-      SessionLink link = optionalLink.get();
-      link.setUser(optionalUser.get());
-      sessionLinkRepository.save(link);
-
-      User user = optionalUser.get();
-      messagingTemplate.convertAndSend("/topic/session/" + code, Map.of(
-        "username", user.getUsername(),
-        "piId", user.getPiId()
-      ));
-
+    if (optionalUser.isPresent() && sessionLinkStore.link(code, optionalUser.get())) {
+      completions.complete(code, optionalUser.get());
       return true;
     }
     return false;
@@ -66,7 +51,12 @@ public class SessionLinkService {
 
 
   public Optional<User> getUserByCode(String code) {
-    return sessionLinkRepository.findByCode(code).map(SessionLink::getUser);
+    return sessionLinkStore.findUser(code);
+  }
+
+  // Calls the listener when the code gets linked; run the returned handle to stop waiting
+  public Runnable awaitLink(String code, Consumer<User> listener) {
+    return completions.await(code, listener);
   }
 
 
@@ -0,0 +1,29 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.User;
+
+import java.util.Optional;
+
+/**
+ * Storage of the short-lived QR login codes. A code is created unlinked, linked to the Pi user who
+ * scans it, and forgotten once {@code session-links.ttl-minutes} have passed.
+ * <p>
+ * {@code session-links.store=memory} (default) keeps codes in this instance only;
+ * {@code session-links.store=jpa} keeps them in the {@code session_links} table, for deployments
+ * where the browser and the Pi app may reach different instances.
+ * </p>
+ */
+public interface SessionLinkStore {
+
+  // Registers a new unlinked code
+  void create(String code);
+
+  // Links a live code to a user; false if the code is unknown or expired
+  boolean link(String code, User user);
+
+  // User linked to a live code, empty while the code is pending, unknown or expired
+  Optional<User> findUser(String code);
+
+  // Drops expired codes and returns how many were removed
+  int removeExpired();
+}
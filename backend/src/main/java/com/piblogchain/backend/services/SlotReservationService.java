@@ -0,0 +1,192 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.dto.SlotUsage;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.models.SlotGuard;
+import com.piblogchain.backend.models.SlotLease;
+import com.piblogchain.backend.repositories.ArticlePromotionRepository;
+import com.piblogchain.backend.repositories.SlotGuardRepository;
+import com.piblogchain.backend.repositories.SlotLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reserves slider slots so that concurrent payments cannot exceed {@link #SLIDER_SLOTS} per
+ * (promotion type, category).
+ * <p>
+ * A payment takes a short lease when it is created and turns it into a promotion when it completes.
+ * Every reservation locks the {@link SlotGuard} row of its key, so the count of live promotions plus
+ * active leases and the write that follows are atomic across backend instances. Abandoned leases stop
+ * counting once they expire and are purged periodically.
+ * </p>
+ * <p>
+ * The counts are plain reads, so the transaction holding the lock must be {@link Isolation#READ_COMMITTED}:
+ * under MySQL's default REPEATABLE READ they would read the snapshot taken before the lock was granted
+ * and miss the slot just committed by the previous holder. Callers that join this service's
+ * transaction (payment creation and completion, plan activation) declare the same isolation.
+ * </p>
+ */
+@Service
+public class SlotReservationService {
+
+  private static final Logger log = LoggerFactory.getLogger(SlotReservationService.class);
+
+  public static final int SLIDER_SLOTS = 7;
+
+  // A paid slot is held while the article is written and reviewed, not only once it is published
+  static final Set<ArticleStatus> SLOT_HOLDERS =
+    EnumSet.of(ArticleStatus.DRAFT, ArticleStatus.PENDING_APPROVAL, ArticleStatus.PUBLISHED);
+
+  private static final String NO_PAYMENT = "";
+
+  private final SlotGuardRepository slotGuardRepository;
+  private final SlotLeaseRepository slotLeaseRepository;
+  private final ArticlePromotionRepository articlePromotionRepository;
+  private final TransactionTemplate guardCreation;
+  private final Duration leaseDuration;
+
+  public SlotReservationService(
+    SlotGuardRepository slotGuardRepository,
+    SlotLeaseRepository slotLeaseRepository,
+    ArticlePromotionRepository articlePromotionRepository,
+    PlatformTransactionManager transactionManager,
+    @Value("${slots.lease-seconds:900}") long leaseSeconds
+  ) {
+    this.slotGuardRepository = slotGuardRepository;
+    this.slotLeaseRepository = slotLeaseRepository;
+    this.articlePromotionRepository = articlePromotionRepository;
+    this.guardCreation = new TransactionTemplate(transactionManager);
+    this.guardCreation.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+  }
+
+  // Takes (or renews) the lease of a payment; fails when the slider is full
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public void reserve(String paymentId, PromoteType type, String categorySlug) {
+    if (type == PromoteType.STANDARD) return;
+    String slug = keySlug(type, categorySlug);
+    lockGuard(type, slug);
+
+    LocalDateTime now = LocalDateTime.now();
+    ensureCapacity(type, slug, now, paymentId);
+
+    SlotLease lease = slotLeaseRepository.findByPaymentId(paymentId)
+      .orElseGet(() -> new SlotLease(paymentId, type, slug, now));
+    lease.setExpiresAt(now.plus(leaseDuration));
+    slotLeaseRepository.save(lease);
+  }
+
+  /**
+   * Confirms the slot of a completing payment. Must run in the transaction that inserts the promotion:
+   * the guard stays locked until that transaction commits, so no other reservation can take the slot
+   * in between. The payment's own lease is consumed; if it expired, the slot is re-checked.
+   */
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public void commit(String paymentId, PromoteType type, String categorySlug) {
+    if (type == PromoteType.STANDARD) return;
+    String slug = keySlug(type, categorySlug);
+    lockGuard(type, slug);
+
+    String ownPayment = paymentId != null ? paymentId : NO_PAYMENT;
+    ensureCapacity(type, slug, LocalDateTime.now(), ownPayment);
+    if (paymentId != null) {
+      slotLeaseRepository.deleteByPaymentId(paymentId);
+    }
+  }
+
+  // Confirms a slot that is not backed by a payment (admin activation)
+  @Transactional(isolation = Isolation.READ_COMMITTED)
+  public void acquire(PromoteType type, String categorySlug) {
+    commit(null, type, categorySlug);
+  }
+
+  // Gives the slot of an abandoned payment back
+  @Transactional
+  public void release(String paymentId) {
+    slotLeaseRepository.deleteByPaymentId(paymentId);
+  }
+
+  // Slots taken by live promotions plus active leases
+  public long countUsedSlots(PromoteType type, String categorySlug) {
+    if (type == PromoteType.STANDARD) return 0;
+    return countUsedSlots(type, keySlug(type, categorySlug), LocalDateTime.now(), NO_PAYMENT);
+  }
+
+  // Category slider slots taken per lower-cased category slug
+  public Map<String, Long> countUsedCategorySlots() {
+    LocalDateTime now = LocalDateTime.now();
+    Map<String, Long> used = new HashMap<>();
+    articlePromotionRepository.countUsedSlotsPerCategory(PromoteType.CATEGORY_SLIDER, SLOT_HOLDERS, now)
+      .forEach(usage -> add(used, usage));
+    slotLeaseRepository.countActivePerCategory(PromoteType.CATEGORY_SLIDER, now)
+      .forEach(usage -> add(used, usage));
+    return used;
+  }
+
+  @Scheduled(fixedRate = 60 * 1000)
+  @Transactional
+  public void removeExpiredLeases() {
+    int removed = slotLeaseRepository.deleteExpired(LocalDateTime.now());
+    if (removed > 0) {
+      log.debug("Removed {} expired slot leases", removed);
+    }
+  }
+
+  private void ensureCapacity(PromoteType type, String slug, LocalDateTime now, String ownPayment) {
+    if (countUsedSlots(type, slug, now, ownPayment) >= SLIDER_SLOTS) {
+      throw new IllegalArgumentException("No slots available for plan: " + type);
+    }
+  }
+
+  private long countUsedSlots(PromoteType type, String slug, LocalDateTime now, String ownPayment) {
+    long promotions = type == PromoteType.CATEGORY_SLIDER
+      ? articlePromotionRepository.countUsedSlotsByCategorySlug(type, SLOT_HOLDERS, slug, now)
+      : articlePromotionRepository.countUsedSlots(type, SLOT_HOLDERS, now);
+    return promotions + slotLeaseRepository.countActive(type, slug, now, ownPayment);
+  }
+
+  // Locks the guard row of the key, creating it first (in its own transaction) if needed. Under
+  // READ COMMITTED the lookup of a missing row takes no gap lock, so the creation does not wait on us
+  private void lockGuard(PromoteType type, String slug) {
+    if (slotGuardRepository.lockByKey(type, slug).isPresent()) return;
+    try {
+      guardCreation.executeWithoutResult(status -> slotGuardRepository.saveAndFlush(new SlotGuard(type, slug)));
+    } catch (DataIntegrityViolationException e) {
+      // Another instance created it first
+    }
+    slotGuardRepository.lockByKey(type, slug)
+      .orElseThrow(() -> new IllegalStateException("Slot guard missing for " + type + "/" + slug));
+  }
+
+  private static String keySlug(PromoteType type, String categorySlug) {
+    if (type != PromoteType.CATEGORY_SLIDER) return "";
+    if (categorySlug == null || categorySlug.isBlank()) {
+      throw new IllegalArgumentException("Category slug is required for CATEGORY_SLIDER");
+    }
+    return Category.normalizeSlug(categorySlug);
+  }
+
+  private static void add(Map<String, Long> used, SlotUsage usage) {
+    if (usage.categorySlug() != null) {
+      used.merge(usage.categorySlug(), usage.usedSlots(), Long::sum);
+    }
+  }
+}
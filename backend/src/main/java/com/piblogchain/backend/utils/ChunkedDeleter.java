@@ -0,0 +1,48 @@
+package com.piblogchain.backend.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Borrado masivo por lotes: selecciona como mucho {@code cleanup.chunk-size} ids y los borra con una
+ * sola sentencia, cada lote en su propia transacción. Así un backlog grande nunca se carga entero en
+ * memoria ni mantiene bloqueos largos.
+ */
+@Component
+public class ChunkedDeleter {
+
+  private final TransactionTemplate transactionTemplate;
+  private final int chunkSize;
+
+  public ChunkedDeleter(PlatformTransactionManager transactionManager, @Value("${cleanup.chunk-size:500}") int chunkSize) {
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.chunkSize = chunkSize;
+  }
+
+  // Devuelve el número total de filas borradas
+  public int deleteAll(Function<Pageable, List<Long>> findIds, Function<List<Long>, Integer> deleteIds) {
+    Pageable firstChunk = PageRequest.of(0, chunkSize);
+    int total = 0;
+    while (true) {
+      Chunk chunk = transactionTemplate.execute(status -> {
+        List<Long> ids = findIds.apply(firstChunk);
+        return new Chunk(ids.size(), ids.isEmpty() ? 0 : deleteIds.apply(ids));
+      });
+      total += chunk.deleted();
+      // Lote incompleto: no queda nada más. Lote sin borrados: las filas cambiaron, se reintenta en la próxima ejecución
+      if (chunk.selected() < chunkSize || chunk.deleted() == 0) {
+        return total;
+      }
+    }
+  }
+
+  private record Chunk(int selected, int deleted) {
+  }
+}
@@ -0,0 +1,182 @@
+package com.piblogchain.backend.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized and gzipped bodies of the hot public lists (featured articles, sliders, categories).
+ * <p>
+ * Each body is serialized and compressed once per version of its data, keyed by endpoint and ETag,
+ * and then written as raw bytes with the matching {@code Content-Encoding}; the servlet container
+ * does not compress a response that already has one. Bodies smaller than
+ * {@code cache.responses.min-compress-bytes}, or that do not shrink, are kept uncompressed. At most
+ * {@code cache.responses.max-entries} bodies are kept, evicting the least recently served one first.
+ * Keys must come from a bounded set (known category slugs, not raw path variables); a {@code null} key
+ * builds the body without caching it.
+ * </p>
+ */
+@Component
+public class CompressedResponseCache {
+
+  private static final String CACHE_NAME = "responses";
+  private static final String GZIP = "gzip";
+
+  private final ObjectMapper objectMapper;
+  private final int maxEntries;
+  private final int minCompressBytes;
+  private final ReentrantLock lock = new ReentrantLock();
+  // Access-ordered, so the eldest entry is the least recently served
+  private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+      return size() > maxEntries;
+    }
+  };
+
+  private final Counter hits;
+  private final Counter misses;
+
+  public CompressedResponseCache(
+    ObjectMapper objectMapper,
+    MeterRegistry meterRegistry,
+    @Value("${cache.responses.max-entries:256}") int maxEntries,
+    @Value("${cache.responses.min-compress-bytes:512}") int minCompressBytes
+  ) {
+    this.objectMapper = objectMapper;
+    this.maxEntries = maxEntries;
+    this.minCompressBytes = minCompressBytes;
+    this.hits = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "hit");
+    this.misses = meterRegistry.counter("cache.gets", "cache", CACHE_NAME, "result", "miss");
+  }
+
+  /**
+   * Conditional JSON response for {@code key} at version {@code etag}, gzipped when the client accepts
+   * it. The gzip and identity bodies carry different ETags (see {@link ConditionalGet#gzipETag}).
+   * {@code body} only runs when the client needs a body and the cached bytes are missing or belong to
+   * an older version.
+   */
+  public ResponseEntity<byte[]> json(
+    WebRequest request, String key, String etag, CacheControl cacheControl, Supplier<?> body) {
+    return ConditionalGet.respond(request, etag, cacheControl, true, () -> body(request, key, etag, body));
+  }
+
+  int size() {
+    lock.lock();
+    try {
+      return entries.size();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  boolean contains(String key) {
+    lock.lock();
+    try {
+      return entries.containsKey(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private ResponseEntity<byte[]> body(WebRequest request, String key, String etag, Supplier<?> body) {
+    Entry entry = key != null ? get(key) : null;
+    if (entry != null && entry.etag().equals(etag)) {
+      hits.increment();
+    } else {
+      misses.increment();
+      entry = build(etag, body.get());
+      if (key != null) {
+        put(key, entry);
+      }
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+      .contentType(MediaType.APPLICATION_JSON)
+      .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (entry.gzip() != null && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).eTag(ConditionalGet.gzipETag(etag)).body(entry.gzip());
+    }
+    return response.body(entry.identity());
+  }
+
+  private Entry get(String key) {
+    lock.lock();
+    try {
+      return entries.get(key);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void put(String key, Entry entry) {
+    lock.lock();
+    try {
+      entries.put(key, entry);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Entry build(String etag, Object body) {
+    byte[] identity;
+    try {
+      identity = objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to serialize response body", e);
+    }
+    byte[] gzip = identity.length >= minCompressBytes ? gzip(identity) : null;
+    return new Entry(etag, identity, gzip != null && gzip.length < identity.length ? gzip : null);
+  }
+
+  private static byte[] gzip(byte[] data) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+    try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+      gzip.write(data);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toByteArray();
+  }
+
+  // "gzip" listed without q=0; "*" only counts when gzip is not listed explicitly
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) return false;
+    Boolean gzip = null;
+    Boolean any = null;
+    for (String part : acceptEncoding.split(",")) {
+      String[] tokens = part.trim().split(";");
+      String coding = tokens[0].trim();
+      boolean accepted = true;
+      for (int i = 1; i < tokens.length; i++) {
+        accepted &= !tokens[i].replace(" ", "").matches("(?i)q=0(\\.0{0,3})?");
+      }
+      if (coding.equalsIgnoreCase(GZIP)) {
+        gzip = accepted;
+      } else if (coding.equals("*")) {
+        any = accepted;
+      }
+    }
+    return gzip != null ? gzip : Boolean.TRUE.equals(any);
+  }
+
+  private record Entry(String etag, byte[] identity, byte[] gzip) {
+  }
+}
@@ -0,0 +1,97 @@
+package com.piblogchain.backend.utils;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Conditional GET for the public read endpoints.
+ * <p>
+ * ETags are built from the version counters of the data behind each endpoint, so a request whose
+ * {@code If-None-Match} still matches gets a 304 before the service layer runs. Read the version
+ * before the body: if they race, the body may be newer than its ETag, which only costs one extra
+ * full response, never a stale 304.
+ * </p>
+ */
+public final class ConditionalGet {
+
+  // The versions are in-memory counters that restart at zero, so ETags from a previous run must never match
+  private static final String INSTANCE = Long.toString(System.currentTimeMillis(), 36);
+
+  private ConditionalGet() {
+  }
+
+  // Strong ETag for a resource at the given versions, e.g. "lx2k9a-article-3.7"
+  public static String etag(String resource, long... versions) {
+    String version = Arrays.stream(versions).mapToObj(Long::toString).collect(Collectors.joining("."));
+    return "\"" + INSTANCE + "-" + resource + "-" + version + "\"";
+  }
+
+  /**
+   * Answers 304 when the client already holds {@code etag}; otherwise builds the response and, if it
+   * succeeded, tags it with the ETag and cache policy.
+   */
+  public static <T> ResponseEntity<T> respond(
+    WebRequest request, String etag, CacheControl cacheControl, Supplier<ResponseEntity<T>> response) {
+    return respond(request, etag, cacheControl, false, response);
+  }
+
+  /**
+   * As above, for responses that may be gzipped: the gzip body is tagged with {@link #gzipETag}, a
+   * client holding either variant gets a 304, and the 304 repeats {@code Vary: Accept-Encoding}.
+   */
+  static <T> ResponseEntity<T> respond(
+    WebRequest request, String etag, CacheControl cacheControl, boolean variesByEncoding,
+    Supplier<ResponseEntity<T>> response) {
+
+    String held = match(request.getHeaderValues(HttpHeaders.IF_NONE_MATCH), etag, variesByEncoding);
+    if (held != null) {
+      ResponseEntity.HeadersBuilder<?> notModified = ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+        .eTag(held)
+        .cacheControl(cacheControl);
+      if (variesByEncoding) {
+        notModified.varyBy(HttpHeaders.ACCEPT_ENCODING);
+      }
+      return notModified.build();
+    }
+
+    ResponseEntity<T> fresh = response.get();
+    if (!fresh.getStatusCode().is2xxSuccessful()) {
+      return fresh;
+    }
+    ResponseEntity.BodyBuilder tagged = ResponseEntity.status(fresh.getStatusCode())
+      .headers(fresh.getHeaders())
+      .cacheControl(cacheControl);
+    // Keep the ETag of a gzipped body
+    if (fresh.getHeaders().getETag() == null) {
+      tagged.eTag(etag);
+    }
+    return tagged.body(fresh.getBody());
+  }
+
+  // Strong ETag of the gzipped body of the resource tagged etag, e.g. "lx2k9a-featured-3-gzip"
+  static String gzipETag(String etag) {
+    return etag.substring(0, etag.length() - 1) + "-gzip\"";
+  }
+
+  // If-None-Match uses the weak comparison, so W/ prefixes are ignored. Returns the tag the client holds
+  static String match(String[] ifNoneMatch, String etag, boolean variesByEncoding) {
+    if (ifNoneMatch == null) return null;
+    String gzip = variesByEncoding ? gzipETag(etag) : null;
+    for (String header : ifNoneMatch) {
+      for (String candidate : header.split(",")) {
+        String tag = candidate.trim();
+        if (tag.startsWith("W/")) tag = tag.substring(2);
+        if (tag.equals("*") || tag.equals(etag)) return etag;
+        if (tag.equals(gzip)) return gzip;
+      }
+    }
+    return null;
+  }
+}
@@ -1,94 +1,164 @@
 package com.piblogchain.backend.utils;
 
+import com.piblogchain.backend.config.AppConfig;
+import com.piblogchain.backend.config.SchedulingConfig;
+import com.piblogchain.backend.scheduling.ScheduledJobMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Componente que envía pings internos al servidor para mantener la aplicación "viva"
- * o para comprobar su estado. Utiliza un intervalo aleatorio entre pings (entre 3 y 15 minutos)
- * para evitar sobrecargar el servidor.
+ * o para comprobar su estado. Utiliza un intervalo aleatorio entre pings (por defecto entre 3 y 15
+ * minutos) para evitar sobrecargar el servidor.
+ * <p>
+ * Cada ping se programa en su propio {@link TaskScheduler} ({@code keepalive-*}) y, al terminar,
+ * programa el siguiente. Ningún hilo queda bloqueado esperando entre pings y un ping lento no
+ * retrasa el resto de tareas periódicas. Cada ejecución se registra en {@link ScheduledJobMonitor}.
+ * </p>
+ * <p>
+ * Métricas: {@code keepalive.ping} (latencia por resultado) y {@code keepalive.missed} (pings que
+ * empezaron con más retraso del tolerado respecto a su hora prevista).
+ * </p>
  */
 @Component
 public class InternalPingScheduler {
 
+  private static final Logger log = LoggerFactory.getLogger(InternalPingScheduler.class);
+
+  /**
+   * Retraso del primer ping tras el arranque.
+   */
+  private static final Duration INITIAL_DELAY = Duration.ofSeconds(3);
+
+  static final String JOB_NAME = "InternalPingScheduler.ping";
+
   /**
    * Cliente HTTP para realizar solicitudes al servidor.
    */
   private final RestTemplate restTemplate;
 
   /**
-   * URL a la que se envía el ping.
+   * Planificador dedicado al ping.
    */
-  @Value("${app.ping.url}")
-  private String pingUrl;
+  private final TaskScheduler taskScheduler;
+
+  private final ScheduledJobMonitor jobMonitor;
 
   /**
-   * Almacena el tiempo (en milisegundos) del último ping realizado.
+   * URL a la que se envía el ping.
    */
-  private long lastPingTime = System.currentTimeMillis();
+  private final String pingUrl;
+
+  private final Duration minDelay;
+  private final Duration maxDelay;
+  private final Duration lateTolerance;
+
+  private final Timer successfulPings;
+  private final Timer failedPings;
+  private final Counter missedPings;
 
   /**
-   * Constructor que inyecta el RestTemplate.
+   * Constructor que inyecta el RestTemplate, el planificador y la configuración de intervalos.
    *
    * @param restTemplate el cliente HTTP a utilizar para enviar los pings.
    */
-  public InternalPingScheduler(RestTemplate restTemplate) {
+  public InternalPingScheduler(
+    @Qualifier(AppConfig.PING_CLIENT) RestTemplate restTemplate,
+    @Qualifier(SchedulingConfig.KEEPALIVE_SCHEDULER) TaskScheduler taskScheduler,
+    ScheduledJobMonitor jobMonitor,
+    MeterRegistry meterRegistry,
+    @Value("${app.ping.url}") String pingUrl,
+    @Value("${app.ping.min-delay-seconds:180}") long minDelaySeconds,
+    @Value("${app.ping.max-delay-seconds:900}") long maxDelaySeconds,
+    @Value("${app.ping.late-tolerance-seconds:60}") long lateToleranceSeconds
+  ) {
     this.restTemplate = restTemplate;
+    this.taskScheduler = taskScheduler;
+    this.jobMonitor = jobMonitor;
+    this.pingUrl = pingUrl;
+    this.minDelay = Duration.ofSeconds(minDelaySeconds);
+    this.maxDelay = Duration.ofSeconds(Math.max(minDelaySeconds, maxDelaySeconds));
+    this.lateTolerance = Duration.ofSeconds(lateToleranceSeconds);
+    this.successfulPings = pingTimer(meterRegistry, "success");
+    this.failedPings = pingTimer(meterRegistry, "failure");
+    this.missedPings = Counter.builder("keepalive.missed")
+      .description("Keep-alive pings that started later than the tolerated delay")
+      .register(meterRegistry);
   }
 
   /**
-   * Método programado que se ejecuta inicialmente con un retraso de 3 segundos.
-   * <p>
-   * Se configura con un fixedRate muy alto (Long.MAX_VALUE) para que no se ejecute automáticamente
-   * nuevamente, ya que el método sendPing se encarga de reprogramar los siguientes pings.
-   * </p>
+   * Programa el primer ping cuando la aplicación ha terminado de arrancar.
    */
-  @Scheduled(initialDelay = 3000, fixedRate = Long.MAX_VALUE)
-  public void sendInitialPing() {
-    sendPing();
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    scheduleNext(INITIAL_DELAY);
   }
 
   /**
-   * Realiza el envío de un ping al servidor y calcula el siguiente intervalo de espera.
-   * <p>
-   * Este método realiza una solicitud GET a la URL de ping, imprime el resultado y, a continuación,
-   * calcula un intervalo aleatorio entre 3 y 15 minutos. Si el tiempo transcurrido desde el último ping
-   * es menor que el intervalo calculado, espera el tiempo restante antes de enviar el siguiente ping.
-   * Finalmente, actualiza el tiempo del último ping y vuelve a llamar a sí mismo recursivamente.
-   * </p>
+   * Realiza el envío de un ping al servidor y programa el siguiente, también si este ha fallado.
+   *
+   * @param plannedAt hora a la que estaba previsto el ping, para detectar retrasos.
    */
-  private void sendPing() {
+  void ping(Instant plannedAt) {
+    Instant startedAt = Instant.now();
+    Duration lateness = Duration.between(plannedAt, startedAt);
+    if (lateness.compareTo(lateTolerance) > 0) {
+      missedPings.increment();
+      log.warn("Keep-alive ping started {} s late", lateness.toSeconds());
+    }
+
+    long start = System.nanoTime();
+    boolean success = false;
     try {
-      // Realiza el ping al servidor y obtiene la respuesta
       String response = restTemplate.getForObject(pingUrl, String.class);
-      System.out.println("Ping exitoso: " + response);
-
-      // Calcula un intervalo aleatorio entre 3 y 15 minutos (en milisegundos)
-      long delay = ThreadLocalRandom.current().nextLong(180000, 900000); // Entre 3 y 15 minutos
-      System.out.println("Esperando " + delay / 60000 + " minutos para el siguiente ping.");
-
-      // Calcula el tiempo transcurrido desde el último ping
-      long timePassed = System.currentTimeMillis() - lastPingTime;
-      // Calcula el tiempo a esperar restando el tiempo transcurrido del intervalo aleatorio
-      long timeToWait = delay - timePassed;
+      successfulPings.record(Duration.ofNanos(System.nanoTime() - start));
+      success = true;
+      log.debug("Ping exitoso: {}", response);
+    } catch (Exception e) {
+      failedPings.record(Duration.ofNanos(System.nanoTime() - start));
+      log.warn("Ping ha fallado: {}", e.getMessage());
+    } finally {
+      Instant nextPlannedAt = scheduleNext(randomDelay());
+      jobMonitor.recordRun(JOB_NAME, startedAt, Duration.ofNanos(System.nanoTime() - start), success, nextPlannedAt);
+    }
+  }
 
-      if (timeToWait > 0) {
-        // Espera el tiempo restante antes de ejecutar el siguiente ping
-        Thread.sleep(timeToWait);
-      }
+  /**
+   * Programa el siguiente ping tras el retraso indicado.
+   */
+  private Instant scheduleNext(Duration delay) {
+    Instant plannedAt = Instant.now().plus(delay);
+    taskScheduler.schedule(() -> ping(plannedAt), plannedAt);
+    log.debug("Siguiente ping en {} s", delay.toSeconds());
+    return plannedAt;
+  }
 
-      // Actualiza el tiempo del último ping
-      lastPingTime = System.currentTimeMillis();
+  /**
+   * Calcula un intervalo aleatorio entre el mínimo y el máximo configurados.
+   */
+  private Duration randomDelay() {
+    if (maxDelay.equals(minDelay)) return minDelay;
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(minDelay.toMillis(), maxDelay.toMillis()));
+  }
 
-      // Llama de nuevo a sendPing para continuar con el ciclo de pings
-      sendPing();
-    } catch (Exception e) {
-      // Si ocurre un error en el envío del ping, se imprime el mensaje de error
-      System.err.println("Ping ha fallado: " + e.getMessage());
-    }
+  private static Timer pingTimer(MeterRegistry meterRegistry, String outcome) {
+    return Timer.builder("keepalive.ping")
+      .description("Keep-alive ping latency")
+      .tag("outcome", outcome)
+      .register(meterRegistry);
   }
 }
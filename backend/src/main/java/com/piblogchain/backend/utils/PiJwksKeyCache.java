@@ -0,0 +1,255 @@
+package com.piblogchain.backend.utils;
+
+import com.piblogchain.backend.config.AppConfig;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caché del JWKS de Pi Network.
+ * <p>
+ * Mantiene en memoria todas las claves del documento JWKS indexadas por {@code kid} y las refresca
+ * en segundo plano. Si el refresco falla se siguen sirviendo las claves anteriores
+ * (stale-while-revalidate) hasta {@code pi.jwks.max-stale-seconds}, de modo que una caída del
+ * endpoint JWKS no tumba las rutas autenticadas. Pasado ese plazo los tokens se rechazan de inmediato
+ * (fail closed) mientras se sigue intentando el refresco en segundo plano.
+ * </p>
+ */
+@Component
+public class PiJwksKeyCache extends SigningKeyResolverAdapter {
+
+  private static final Logger log = LoggerFactory.getLogger(PiJwksKeyCache.class);
+
+  private static final String PI_PUBLIC_KEY_URL = "https://api.minepi.com/v2/.well-known/jwks.json";
+  private static final String PI_SANDBOX_PUBLIC_KEY_URL = "https://api.testnet.minepi.com/v2/.well-known/jwks.json";
+
+  private final RestTemplate restTemplate;
+  private final String activeProfile;
+  private final String jwksUrl;
+  private final Duration refreshAfter;
+  private final Duration maxStale;
+  private final Duration minRefreshInterval;
+  private final Duration fetchTimeout;
+
+  private final AtomicReference<KeySet> keySet = new AtomicReference<>(KeySet.EMPTY);
+  private final AtomicReference<CompletableFuture<KeySet>> inFlight = new AtomicReference<>();
+  private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "pi-jwks-refresh");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public PiJwksKeyCache(
+    @Qualifier(AppConfig.PI_CLIENT) RestTemplate restTemplate,
+    @Value("${spring.profiles.active:dev}") String activeProfile,
+    @Value("${pi.jwks.refresh-after-seconds:3600}") long refreshAfterSeconds,
+    @Value("${pi.jwks.max-stale-seconds:86400}") long maxStaleSeconds,
+    @Value("${pi.jwks.min-refresh-interval-seconds:30}") long minRefreshIntervalSeconds,
+    @Value("${pi.jwks.fetch-timeout-seconds:10}") long fetchTimeoutSeconds
+  ) {
+    this.restTemplate = restTemplate;
+    this.activeProfile = activeProfile;
+    this.jwksUrl = "prod".equals(activeProfile) ? PI_PUBLIC_KEY_URL : PI_SANDBOX_PUBLIC_KEY_URL;
+    this.refreshAfter = Duration.ofSeconds(refreshAfterSeconds);
+    this.maxStale = Duration.ofSeconds(maxStaleSeconds);
+    this.minRefreshInterval = Duration.ofSeconds(minRefreshIntervalSeconds);
+    this.fetchTimeout = Duration.ofSeconds(fetchTimeoutSeconds);
+  }
+
+  /**
+   * Programa el refresco periódico del JWKS. En dev/sandbox los tokens no se validan como JWT,
+   * así que no se descarga nada.
+   */
+  @PostConstruct
+  void scheduleRefresh() {
+    if ("dev".equals(activeProfile) || "sandbox".equals(activeProfile)) {
+      return;
+    }
+    long periodMillis = refreshAfter.toMillis();
+    refresher.scheduleWithFixedDelay(this::refreshAsync, 0, periodMillis, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    refresher.shutdownNow();
+  }
+
+  @Override
+  public Key resolveSigningKey(JwsHeader header, Claims claims) {
+    return getKey(header.getKeyId());
+  }
+
+  /**
+   * Devuelve la clave pública asociada al {@code kid} indicado. Si {@code kid} es null se devuelve
+   * la primera clave del JWKS. Un {@code kid} desconocido fuerza un refresco (limitado por
+   * {@code pi.jwks.min-refresh-interval-seconds}) para soportar la rotación de claves.
+   */
+  public PublicKey getKey(String kid) {
+    Instant now = Instant.now();
+    KeySet current = keySet.get();
+
+    if (current.isEmpty()) {
+      current = awaitRefresh(current);
+    } else if (current.isOlderThan(maxStale, now)) {
+      // Claves demasiado antiguas: no se usan ni se espera a un endpoint que lleva tiempo fallando
+      refreshAsync();
+      throw new IllegalStateException("Las claves de Pi Network han caducado (obtenidas en " + current.fetchedAt() + ")");
+    } else if (current.isOlderThan(refreshAfter, now)) {
+      refreshAsync();
+    }
+
+    PublicKey key = current.find(kid);
+    if (key == null && current.isOlderThan(minRefreshInterval, now)) {
+      current = awaitRefresh(current);
+      key = current.find(kid);
+    }
+    if (key == null) {
+      throw new IllegalStateException("No se encontró la clave pública de Pi Network para kid: " + kid);
+    }
+    return key;
+  }
+
+  /**
+   * Espera al refresco en curso (o lanza uno). Si falla y hay claves previas, las devuelve como
+   * respaldo; solo falla cuando no hay nada que servir.
+   */
+  private KeySet awaitRefresh(KeySet fallback) {
+    try {
+      return refreshAsync().get(fetchTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrumpido obteniendo el JWKS de Pi Network", e);
+    } catch (Exception e) {
+      if (!fallback.isEmpty()) {
+        log.warn("JWKS refresh failed, serving keys fetched at {}: {}", fallback.fetchedAt(), e.getMessage());
+        return fallback;
+      }
+      throw new IllegalStateException("No se pudo obtener la clave pública de Pi Network", e);
+    }
+  }
+
+  /**
+   * Lanza un refresco en segundo plano. Las llamadas concurrentes comparten el mismo refresco.
+   */
+  private CompletableFuture<KeySet> refreshAsync() {
+    while (true) {
+      CompletableFuture<KeySet> existing = inFlight.get();
+      if (existing != null) {
+        return existing;
+      }
+      CompletableFuture<KeySet> created = new CompletableFuture<>();
+      if (inFlight.compareAndSet(null, created)) {
+        refresher.execute(() -> {
+          try {
+            KeySet fresh = fetchKeySet();
+            keySet.set(fresh);
+            created.complete(fresh);
+          } catch (Exception e) {
+            log.warn("Failed to fetch Pi JWKS from {}: {}", jwksUrl, e.getMessage());
+            created.completeExceptionally(e);
+          } finally {
+            inFlight.compareAndSet(created, null);
+          }
+        });
+        return created;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private KeySet fetchKeySet() throws Exception {
+    Map<String, Object> body = restTemplate.getForObject(jwksUrl, Map.class);
+    if (body == null || !(body.get("keys") instanceof List<?> keys) || keys.isEmpty()) {
+      throw new IllegalStateException("No se pudo obtener la clave pública de Pi Network");
+    }
+
+    Map<String, PublicKey> byKid = new LinkedHashMap<>();
+    PublicKey first = null;
+    for (Object entry : keys) {
+      Map<String, Object> jwk = (Map<String, Object>) entry;
+      try {
+        PublicKey publicKey = toPublicKey(jwk);
+        if (first == null) {
+          first = publicKey;
+        }
+        if (jwk.get("kid") instanceof String kid) {
+          byKid.put(kid, publicKey);
+        }
+      } catch (Exception e) {
+        log.warn("Skipping unparseable JWKS key {}: {}", jwk.get("kid"), e.getMessage());
+      }
+    }
+    if (first == null) {
+      throw new IllegalStateException("El JWKS de Pi Network no contiene claves RSA válidas");
+    }
+    return new KeySet(Map.copyOf(byKid), first, Instant.now());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static PublicKey toPublicKey(Map<String, Object> jwk) throws Exception {
+    KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+    if (jwk.get("n") instanceof String n && jwk.get("e") instanceof String e) {
+      Base64.Decoder decoder = Base64.getUrlDecoder();
+      RSAPublicKeySpec spec = new RSAPublicKeySpec(
+        new BigInteger(1, decoder.decode(n)),
+        new BigInteger(1, decoder.decode(e))
+      );
+      return keyFactory.generatePublic(spec);
+    }
+
+    // "x5c" es un array; se toma el primer elemento (certificado X.509 en DER)
+    byte[] der = Base64.getDecoder().decode(((List<String>) jwk.get("x5c")).get(0));
+    try {
+      return CertificateFactory.getInstance("X.509")
+        .generateCertificate(new ByteArrayInputStream(der))
+        .getPublicKey();
+    } catch (Exception notACertificate) {
+      return keyFactory.generatePublic(new X509EncodedKeySpec(der));
+    }
+  }
+
+  private record KeySet(Map<String, PublicKey> byKid, PublicKey defaultKey, Instant fetchedAt) {
+
+    static final KeySet EMPTY = new KeySet(Map.of(), null, Instant.EPOCH);
+
+    boolean isEmpty() {
+      return defaultKey == null;
+    }
+
+    boolean isOlderThan(Duration age, Instant now) {
+      return fetchedAt.plus(age).isBefore(now);
+    }
+
+    PublicKey find(String kid) {
+      return kid == null ? defaultKey : byKid.get(kid);
+    }
+  }
+}
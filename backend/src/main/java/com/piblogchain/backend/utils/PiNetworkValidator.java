@@ -2,77 +2,76 @@ package com.piblogchain.backend.utils;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.ResponseEntity;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import java.security.PublicKey;
-import java.security.KeyFactory;
-import java.security.spec.X509EncodedKeySpec;
-import java.util.Base64;
-import java.util.Map;
+import java.util.Optional;
 
 @Component
 public class PiNetworkValidator {
 
-  private static final String PI_PUBLIC_KEY_URL = "https://api.minepi.com/v2/.well-known/jwks.json";
-  private static final String PI_SANDBOX_PUBLIC_KEY_URL = "https://api.testnet.minepi.com/v2/.well-known/jwks.json";
+  private final PiJwksKeyCache jwksKeyCache;
+  private final VerifiedTokenCache verifiedTokenCache;
+  private final JwtParser jwtParser;
 
   @Value("${spring.profiles.active:dev}")
   private String activeProfile;
 
+  public PiNetworkValidator(PiJwksKeyCache jwksKeyCache, VerifiedTokenCache verifiedTokenCache) {
+    this.jwksKeyCache = jwksKeyCache;
+    this.verifiedTokenCache = verifiedTokenCache;
+    this.jwtParser = Jwts.parserBuilder()
+      .setSigningKeyResolver(jwksKeyCache)
+      .build();
+  }
+
   /**
-   * Valida el access token.
-   * En modo dev/sandbox se acepta sin validación JWT.
-   * En producción se valida utilizando la clave pública de Pi Network.
+   * Verifica el access token una sola vez y devuelve sus claims.
+   * En modo dev/sandbox se acepta sin validación JWT y se devuelven valores fijos.
+   * En producción se valida la firma con la clave pública de Pi Network (seleccionada por kid);
+   * los tokens ya verificados se sirven desde la caché hasta su "exp".
    */
-  public boolean validateAccessToken(String accessToken) {
-
-
+  public Optional<PiTokenClaims> verify(String accessToken) {
     // Modo desarrollo o sandbox: aceptar token sin validación JWT
     if ("dev".equals(activeProfile) || "sandbox".equals(activeProfile)) {
-      System.out.println("🟢 Modo sandbox/dev: token aceptado sin validación JWT");
-      return true; // En sandbox, el token no es un JWT firmado
+      return Optional.of(new PiTokenClaims("Myblood", "ADMIN", null)); // En sandbox, el token no es un JWT firmado
+    }
+
+    PiTokenClaims cached = verifiedTokenCache.get(accessToken);
+    if (cached != null) {
+      return Optional.of(cached);
     }
 
     // Modo producción: validar como JWT usando la clave pública de Pi Network
     try {
-      PublicKey piPublicKey = getPiPublicKey();
-      Jws<Claims> claims = Jwts.parserBuilder()
-        .setSigningKey(piPublicKey)
-        .build()
-        .parseClaimsJws(accessToken);
-
-      return true;
+      Claims claims = jwtParser.parseClaimsJws(accessToken).getBody();
+      PiTokenClaims verified = new PiTokenClaims(
+        claims.getSubject(),
+        claims.get("role", String.class),
+        claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+      );
+      verifiedTokenCache.put(accessToken, verified);
+      return Optional.of(verified);
     } catch (Exception e) {
       System.out.println("❌ Error validando token");
-      return false;
+      return Optional.empty();
     }
   }
 
   /**
-   * Obtiene la clave pública de Pi Network.
-   * Este método es público para que pueda ser usado desde JwtAuthenticationFilter.
+   * Valida el access token.
+   * En modo dev/sandbox se acepta sin validación JWT.
    */
-  public PublicKey getPiPublicKey() throws Exception {
-    String url = "prod".equals(activeProfile) ? PI_PUBLIC_KEY_URL : PI_SANDBOX_PUBLIC_KEY_URL;
-    RestTemplate restTemplate = new RestTemplate();
-    ResponseEntity<Map> response = restTemplate.getForEntity(url, Map.class);
-
-    if (response.getBody() == null || !response.getBody().containsKey("keys")) {
-      throw new IllegalStateException("No se pudo obtener la clave pública de Pi Network");
-    }
+  public boolean validateAccessToken(String accessToken) {
+    return verify(accessToken).isPresent();
+  }
 
-    // Asumimos que la primera clave en "keys" es la correcta
-    @SuppressWarnings("unchecked")
-    Map<String, Object> key = (Map<String, Object>) ((java.util.List<?>) response.getBody().get("keys")).get(0);
-    // "x5c" es un array; se toma el primer elemento
-    String publicKeyPem = ((java.util.List<String>) key.get("x5c")).get(0);
-    byte[] decodedKey = Base64.getDecoder().decode(publicKeyPem);
-    X509EncodedKeySpec keySpec = new X509EncodedKeySpec(decodedKey);
-    KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-    return keyFactory.generatePublic(keySpec);
+  /**
+   * Obtiene la primera clave pública del JWKS de Pi Network desde la caché.
+   */
+  public PublicKey getPiPublicKey() {
+    return jwksKeyCache.getKey(null);
   }
 
   public String getActiveProfile() {
@@ -80,24 +79,7 @@ public class PiNetworkValidator {
   }
 
   public String extractPiId(String accessToken) {
-    if ("dev".equals(activeProfile) || "sandbox".equals(activeProfile)) {
-      // En sandbox/dev, puedes devolver un valor fijo
-      return "Myblood";
-    }
-
-    try {
-      PublicKey piPublicKey = getPiPublicKey();
-      Claims claims = Jwts.parserBuilder()
-        .setSigningKey(piPublicKey)
-        .build()
-        .parseClaimsJws(accessToken)
-        .getBody();
-
-      return claims.getSubject(); // El piId
-    } catch (Exception e) {
-      System.out.println("❌ Error extracting piId");
-      return null;
-    }
+    return verify(accessToken).map(PiTokenClaims::piId).orElse(null); // El piId
   }
 
 }
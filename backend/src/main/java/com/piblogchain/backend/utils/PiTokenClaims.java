@@ -0,0 +1,13 @@
+package com.piblogchain.backend.utils;
+
+import java.time.Instant;
+
+/**
+ * Datos de un access token de Pi Network ya verificado.
+ *
+ * @param piId      identificador del usuario (claim "sub")
+ * @param role      rol del usuario (claim "role")
+ * @param expiresAt instante de expiración (claim "exp"), o null si el token no lo incluye
+ */
+public record PiTokenClaims(String piId, String role, Instant expiresAt) {
+}
@@ -1,40 +1,63 @@
 package com.piblogchain.backend.utils;
 
 import com.piblogchain.backend.enums.PaymentStatus;
-import com.piblogchain.backend.models.Payment;
 import com.piblogchain.backend.repositories.PaymentRepository;
-import com.piblogchain.backend.repositories.SessionLinkRepository;
-import jakarta.transaction.Transactional;
+import com.piblogchain.backend.services.SessionLinkStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Component
 public class SessionCleanupTask {
 
-  private final SessionLinkRepository sessionLinkRepository;
-  private final PaymentRepository paymentRepository;
+  private static final Logger log = LoggerFactory.getLogger(SessionCleanupTask.class);
 
-  public SessionCleanupTask(SessionLinkRepository sessionLinkRepository,
-                            PaymentRepository paymentRepository) {
-    this.sessionLinkRepository = sessionLinkRepository;
+  private final SessionLinkStore sessionLinkStore;
+  private final PaymentRepository paymentRepository;
+  private final ChunkedDeleter chunkedDeleter;
+  private final DistributionSummary removedSessionLinks;
+  private final DistributionSummary removedPayments;
+
+  public SessionCleanupTask(SessionLinkStore sessionLinkStore,
+                            PaymentRepository paymentRepository,
+                            ChunkedDeleter chunkedDeleter,
+                            MeterRegistry meterRegistry) {
+    this.sessionLinkStore = sessionLinkStore;
     this.paymentRepository = paymentRepository;
+    this.chunkedDeleter = chunkedDeleter;
+    this.removedSessionLinks = removedRows(meterRegistry, "session_links");
+    this.removedPayments = removedRows(meterRegistry, "payment");
   }
 
   @Scheduled(fixedRate = 5 * 60 * 1000) // cada 5 minutos
-  @Transactional
   public void removeExpiredSessionLinksAndPendingPayments() {
     LocalDateTime cutoff = LocalDateTime.now().minusMinutes(10);
 
-    // Elimina session links antiguos
-    sessionLinkRepository.deleteAllByCreatedAtBefore(cutoff);
+    // Elimina session links caducados
+    int sessionLinks = sessionLinkStore.removeExpired();
+    removedSessionLinks.record(sessionLinks);
 
-    // Elimina pagos CREATED sin artículo y antiguos
-    List<Payment> orphanedPayments = paymentRepository
-      .findByArticleIsNullAndStatusAndCreatedAtBefore(PaymentStatus.CREATED, cutoff);
+    // Elimina pagos CREATED sin artículo y antiguos, por lotes y sin cargarlos en memoria
+    int payments = chunkedDeleter.deleteAll(
+      chunk -> paymentRepository.findAbandonedIds(PaymentStatus.CREATED, cutoff, chunk),
+      ids -> paymentRepository.deleteAbandoned(ids, PaymentStatus.CREATED));
+    removedPayments.record(payments);
+
+    if (sessionLinks > 0 || payments > 0) {
+      log.info("Cleanup removed {} session links and {} abandoned payments", sessionLinks, payments);
+    }
+  }
 
-    paymentRepository.deleteAll(orphanedPayments);
+  // Filas borradas en cada ejecución, por tabla
+  private static DistributionSummary removedRows(MeterRegistry meterRegistry, String table) {
+    return DistributionSummary.builder("cleanup.rows.removed")
+      .description("Rows removed per cleanup run")
+      .tag("table", table)
+      .register(meterRegistry);
   }
 }
@@ -0,0 +1,79 @@
+package com.piblogchain.backend.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caché acotada de tokens ya verificados.
+ * <p>
+ * Las entradas se indexan por el hash SHA-256 del token (nunca se guarda el token en claro) y
+ * caducan en el instante "exp" del propio token. Los tokens sin "exp" no se cachean.
+ * </p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+  private final int maxSize;
+  private final Map<String, PiTokenClaims> entries = new ConcurrentHashMap<>();
+
+  public VerifiedTokenCache(@Value("${pi.token-cache.max-size:10000}") int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public PiTokenClaims get(String accessToken) {
+    String key = hash(accessToken);
+    PiTokenClaims claims = entries.get(key);
+    if (claims == null) {
+      return null;
+    }
+    if (!claims.expiresAt().isAfter(Instant.now())) {
+      entries.remove(key, claims);
+      return null;
+    }
+    return claims;
+  }
+
+  public void put(String accessToken, PiTokenClaims claims) {
+    if (maxSize <= 0 || claims.expiresAt() == null || !claims.expiresAt().isAfter(Instant.now())) {
+      return;
+    }
+    if (entries.size() >= maxSize) {
+      evict();
+    }
+    entries.put(hash(accessToken), claims);
+  }
+
+  /**
+   * Elimina primero las entradas caducadas y, si sigue llena, descarta entradas arbitrarias
+   * hasta dejar hueco.
+   */
+  private void evict() {
+    Instant now = Instant.now();
+    entries.values().removeIf(claims -> !claims.expiresAt().isAfter(now));
+
+    Iterator<String> keys = entries.keySet().iterator();
+    while (entries.size() >= maxSize && keys.hasNext()) {
+      keys.next();
+      keys.remove();
+    }
+  }
+
+  private static String hash(String accessToken) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256")
+        .digest(accessToken.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 no disponible", e);
+    }
+  }
+}
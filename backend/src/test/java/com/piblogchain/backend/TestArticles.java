@@ -0,0 +1,49 @@
+package com.piblogchain.backend;
+
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.ArticlePromotion;
+import com.piblogchain.backend.models.Category;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Article fixtures shared by the repository and service tests.
+ */
+public final class TestArticles {
+
+  private TestArticles() {
+  }
+
+  // A valid, unsaved article; tests override the fields they are about
+  public static Article article(String title, ArticleStatus status, Category category) {
+    Article article = new Article();
+    article.setCompany("Company");
+    article.setApp("App");
+    article.setTitle(title);
+    article.setDescription("Description");
+    article.setContent("<p>Content</p>");
+    article.setPublishDate(LocalDate.now());
+    article.setStatus(status);
+    article.setCreatedBy("author");
+    article.setCategory(category);
+    return article;
+  }
+
+  // Adds a live promotion of the type, expiring in 30 days
+  public static ArticlePromotion promote(Article article, PromoteType type) {
+    return promote(article, type, LocalDateTime.now().plusDays(30), false);
+  }
+
+  public static ArticlePromotion promote(Article article, PromoteType type, LocalDateTime expiration, boolean cancelled) {
+    ArticlePromotion promotion = new ArticlePromotion();
+    promotion.setArticle(article);
+    promotion.setPromoteType(type);
+    promotion.setExpirationAt(expiration);
+    promotion.setCancelled(cancelled);
+    article.getPromotions().add(promotion);
+    return promotion;
+  }
+}
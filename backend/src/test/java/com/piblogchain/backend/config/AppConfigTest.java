@@ -0,0 +1,85 @@
+package com.piblogchain.backend.config;
+
+import com.piblogchain.backend.resilience.ResilienceRegistry;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AppConfigTest {
+
+  private final AppConfig appConfig = new AppConfig(new ResilienceRegistry(new SimpleMeterRegistry(), new MockEnvironment()));
+  private final HttpClient httpClient = appConfig.outboundHttpClient(2000);
+  // Client ports seen by the server: one port per TCP connection
+  private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+  private HttpServer server;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/fast", exchange -> {
+      clientPorts.add(exchange.getRemoteAddress().getPort());
+      byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.createContext("/slow", exchange -> {
+      try {
+        Thread.sleep(2000);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void upstreamsShareKeptAliveConnections() {
+    RestTemplate okx = appConfig.okxRestTemplate(httpClient, 3000);
+    RestTemplate pi = appConfig.piRestTemplate(httpClient, 5000);
+
+    assertThat(okx.getForObject(url("/fast"), String.class)).isEqualTo("ok");
+    assertThat(pi.getForObject(url("/fast"), String.class)).isEqualTo("ok");
+    assertThat(okx.getForObject(url("/fast"), String.class)).isEqualTo("ok");
+
+    assertThat(clientPorts).hasSize(1);
+  }
+
+  @Test
+  void slowUpstreamFailsAtItsReadTimeout() {
+    RestTemplate okx = appConfig.okxRestTemplate(httpClient, 200);
+
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> okx.getForObject(url("/slow"), String.class))
+      .isInstanceOf(ResourceAccessException.class);
+    assertThat(System.nanoTime() - start).isLessThan(1_500_000_000L);
+  }
+
+  private String url(String path) {
+    return "http://localhost:" + server.getAddress().getPort() + path;
+  }
+}
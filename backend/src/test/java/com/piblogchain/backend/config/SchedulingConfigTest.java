@@ -0,0 +1,51 @@
+package com.piblogchain.backend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingConfigTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+    .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+    .withUserConfiguration(SchedulingConfig.class);
+
+  @Test
+  void platformThreadsUsePooledSchedulers() {
+    contextRunner.run(context -> {
+      assertThat(context.getBean(SchedulingConfig.TASK_SCHEDULER, TaskScheduler.class))
+        .isInstanceOf(ThreadPoolTaskScheduler.class);
+      assertThat(context.getBean(SchedulingConfig.KEEPALIVE_SCHEDULER, TaskScheduler.class))
+        .isInstanceOf(ThreadPoolTaskScheduler.class);
+    });
+  }
+
+  @Test
+  void virtualThreadsUseVirtualThreadSchedulers() {
+    contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+      assertThat(context).getBeans(TaskScheduler.class).hasSize(2);
+      assertThat(context.getBean(SchedulingConfig.TASK_SCHEDULER, TaskScheduler.class))
+        .isInstanceOf(SimpleAsyncTaskScheduler.class);
+      assertThat(context.getBean(SchedulingConfig.KEEPALIVE_SCHEDULER, TaskScheduler.class))
+        .isInstanceOf(SimpleAsyncTaskScheduler.class);
+
+      // The scheduled future completes on hand-off to the thread, so wait for the task itself
+      CompletableFuture<Thread> ran = new CompletableFuture<>();
+      context.getBean(SchedulingConfig.KEEPALIVE_SCHEDULER, TaskScheduler.class)
+        .schedule(() -> ran.complete(Thread.currentThread()), Instant.now());
+      Thread thread = ran.get(5, TimeUnit.SECONDS);
+      assertThat(thread.isVirtual()).isTrue();
+      assertThat(thread.getName()).startsWith("keepalive-");
+    });
+  }
+}
@@ -0,0 +1,38 @@
+package com.piblogchain.backend.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+  private final Object monitor = new Object();
+
+  @Test
+  void blockingInsideSynchronizedOnAVirtualThreadIsReported() throws Exception {
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    VirtualThreadPinningMonitor pinningMonitor = new VirtualThreadPinningMonitor(meterRegistry, 10);
+    pinningMonitor.start();
+    try {
+      Thread.ofVirtual().start(() -> {
+        synchronized (monitor) {
+          try {
+            Thread.sleep(50);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }).join();
+
+      // JFR delivers streamed events about once per second
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (meterRegistry.counter("jvm.threads.virtual.pinned").count() == 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(100);
+      }
+      assertThat(meterRegistry.counter("jvm.threads.virtual.pinned").count()).isGreaterThanOrEqualTo(1);
+    } finally {
+      pinningMonitor.stop();
+    }
+  }
+}
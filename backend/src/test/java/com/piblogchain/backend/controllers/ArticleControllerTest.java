@@ -0,0 +1,182 @@
+package com.piblogchain.backend.controllers;
+
+import com.cloudinary.Cloudinary;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.models.User;
+import com.piblogchain.backend.models.UserRole;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import com.piblogchain.backend.repositories.CategoryRepository;
+import com.piblogchain.backend.repositories.PaymentRepository;
+import com.piblogchain.backend.repositories.UserRepository;
+import com.piblogchain.backend.resilience.ResilienceRegistry;
+import com.piblogchain.backend.services.ArticleDetailCache;
+import com.piblogchain.backend.services.ArticleSearchIndex;
+import com.piblogchain.backend.services.ArticleService;
+import com.piblogchain.backend.services.CategoryCatalog;
+import com.piblogchain.backend.services.PaymentService;
+import com.piblogchain.backend.services.PromotionReadModel;
+import com.piblogchain.backend.utils.CompressedResponseCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// No surrounding transaction: each repository call gets its own persistence context, as in a request
+@DataJpaTest(properties = {
+  "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+  "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ArticleControllerTest {
+
+  @Autowired
+  private ArticleRepository articleRepository;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private PaymentRepository paymentRepository;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private CategoryCatalog categoryCatalog;
+  private CompressedResponseCache compressedResponses;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void setUp() {
+    categoryRepository.save(new Category("Games", "games"));
+    userRepository.save(new User("pi-1", "ada", "ada@example.com", UserRole.ADMIN));
+
+    Cloudinary cloudinary = mock(Cloudinary.class);
+    ResilienceRegistry resilienceRegistry = new ResilienceRegistry(new SimpleMeterRegistry(), new MockEnvironment());
+    categoryCatalog = new CategoryCatalog(categoryRepository);
+    ArticleService articleService = new ArticleService(
+      articleRepository,
+      categoryCatalog,
+      userRepository,
+      paymentRepository,
+      mock(PaymentService.class),
+      mock(PromotionReadModel.class),
+      mock(ArticleDetailCache.class),
+      mock(ArticleSearchIndex.class),
+      cloudinary,
+      resilienceRegistry,
+      false
+    );
+    compressedResponses = mock(CompressedResponseCache.class);
+    ArticleController controller = new ArticleController(
+      articleService, cloudinary, resilienceRegistry, compressedResponses, categoryCatalog);
+    mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+    SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("ada", null, "ROLE_ADMIN"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    articleRepository.deleteAll();
+    userRepository.deleteAll();
+    categoryRepository.deleteAll();
+  }
+
+  @Test
+  void createdArticleIsSerializedWithItsCategory() throws Exception {
+    mockMvc.perform(post("/api/articles")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("""
+          {
+            "company": "Company",
+            "app": "App",
+            "title": "Title",
+            "description": "Description",
+            "category": {"name": "Games"},
+            "content": "<p>Content</p>",
+            "publishDate": "2025-01-01"
+          }
+          """))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.title").value("Title"))
+      .andExpect(jsonPath("$.category.slug").value("games"));
+  }
+
+  // The category comes from the catalogue: saving an article must not load it again
+  @Test
+  void savingArticlesDoesNotSelectTheirCategory() throws Exception {
+    categoryCatalog.findAll();
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+
+    mockMvc.perform(post("/api/articles")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(articleJson("Title")))
+      .andExpect(status().isOk());
+
+    assertThat(statistics.getEntityStatistics(Category.class.getName()).getLoadCount()).isZero();
+
+    Long id = articleRepository.findAll().get(0).getId();
+    mockMvc.perform(put("/api/articles/" + id)
+        .principal(SecurityContextHolder.getContext().getAuthentication())
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(articleJson("Edited")))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.category.slug").value("games"));
+    assertThat(articleRepository.findById(id)).get().extracting(Article::getTitle).isEqualTo("Edited");
+  }
+
+  // Arbitrary slugs in the URL must not become response cache keys
+  @Test
+  void onlyKnownCategorySlidersAreCached() throws Exception {
+    mockMvc.perform(get("/api/articles/promoted-videos/category/GAMES"));
+    mockMvc.perform(get("/api/articles/promoted-videos/category/no-such-category"));
+
+    verify(compressedResponses).json(any(), eq("promoted-videos:category:games"), any(), any(), any());
+    verify(compressedResponses).json(any(), isNull(), any(), any(), any());
+  }
+
+  private static String articleJson(String title) {
+    return """
+      {
+        "company": "Company",
+        "app": "App",
+        "title": "%s",
+        "description": "Description",
+        "category": {"name": "Games"},
+        "content": "<p>Content</p>",
+        "publishDate": "2025-01-01",
+        "status": "DRAFT"
+      }
+      """.formatted(title);
+  }
+}
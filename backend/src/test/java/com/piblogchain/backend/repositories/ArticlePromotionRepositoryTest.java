@@ -0,0 +1,83 @@
+package com.piblogchain.backend.repositories;
+
+import com.piblogchain.backend.TestArticles;
+import com.piblogchain.backend.dto.SlotUsage;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.Category;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class ArticlePromotionRepositoryTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ArticlePromotionRepository articlePromotionRepository;
+
+  private static final List<ArticleStatus> SLOT_HOLDERS =
+    List.of(ArticleStatus.DRAFT, ArticleStatus.PENDING_APPROVAL, ArticleStatus.PUBLISHED);
+
+  private Category games;
+  private Category tools;
+
+  @BeforeEach
+  void setUp() {
+    // Stored as "games": slugs are lowercased on write and compared without LOWER()
+    games = entityManager.persist(new Category("Games", "Games"));
+    tools = entityManager.persist(new Category("Tools", "tools"));
+  }
+
+  @Test
+  void countsDistinctArticlesWithUnexpiredPromotions() {
+    LocalDateTime future = LocalDateTime.now().plusDays(10);
+    persistArticle(games, ArticleStatus.PUBLISHED, PromoteType.MAIN_SLIDER, future, false);
+    persistArticle(games, ArticleStatus.PUBLISHED, PromoteType.MAIN_SLIDER, future, true);
+    persistArticle(tools, ArticleStatus.PUBLISHED, PromoteType.MAIN_SLIDER, LocalDateTime.now().minusDays(1), false);
+    persistArticle(tools, ArticleStatus.DRAFT, PromoteType.MAIN_SLIDER, future, false);
+    persistArticle(tools, ArticleStatus.REJECTED, PromoteType.MAIN_SLIDER, future, false);
+    Article twice = persistArticle(tools, ArticleStatus.PUBLISHED, PromoteType.MAIN_SLIDER, future, false);
+    TestArticles.promote(twice, PromoteType.MAIN_SLIDER, null, false);
+    entityManager.flush();
+
+    long used = articlePromotionRepository.countUsedSlots(PromoteType.MAIN_SLIDER, SLOT_HOLDERS, LocalDateTime.now());
+
+    assertThat(used).isEqualTo(4);
+  }
+
+  @Test
+  void countsCategorySlotsPerCategoryInOneQuery() {
+    LocalDateTime future = LocalDateTime.now().plusDays(10);
+    persistArticle(games, ArticleStatus.PUBLISHED, PromoteType.CATEGORY_SLIDER, future, false);
+    persistArticle(games, ArticleStatus.PUBLISHED, PromoteType.CATEGORY_SLIDER, future, false);
+    persistArticle(tools, ArticleStatus.PUBLISHED, PromoteType.CATEGORY_SLIDER, future, false);
+    persistArticle(tools, ArticleStatus.PUBLISHED, PromoteType.MAIN_SLIDER, future, false);
+    entityManager.flush();
+    LocalDateTime now = LocalDateTime.now();
+
+    List<SlotUsage> perCategory = articlePromotionRepository
+      .countUsedSlotsPerCategory(PromoteType.CATEGORY_SLIDER, SLOT_HOLDERS, now);
+    long usedInGames = articlePromotionRepository
+      .countUsedSlotsByCategorySlug(PromoteType.CATEGORY_SLIDER, SLOT_HOLDERS, "games", now);
+
+    assertThat(perCategory).containsExactlyInAnyOrder(new SlotUsage("games", 2), new SlotUsage("tools", 1));
+    assertThat(usedInGames).isEqualTo(2);
+  }
+
+  private Article persistArticle(Category category, ArticleStatus status, PromoteType type, LocalDateTime expiration, boolean cancelled) {
+    Article article = TestArticles.article("Title", status, category);
+    TestArticles.promote(article, type, expiration, cancelled);
+    return entityManager.persist(article);
+  }
+}
@@ -0,0 +1,158 @@
+package com.piblogchain.backend.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DependencyGuardTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private DependencyGuard guard;
+
+  @BeforeEach
+  void setUp() {
+    MockEnvironment environment = new MockEnvironment()
+      .withProperty("resilience.test.failure-threshold", "3")
+      .withProperty("resilience.test.open-seconds", "30")
+      .withProperty("resilience.test.max-concurrent", "1")
+      .withProperty("resilience.test.max-wait-ms", "50");
+    guard = new ResilienceRegistry(meterRegistry, environment, clock).guard("test");
+  }
+
+  @Test
+  void circuitOpensAfterConsecutiveFailuresAndStopsCallingTheDependency() {
+    AtomicInteger calls = new AtomicInteger();
+    for (int i = 0; i < 3; i++) {
+      assertThatThrownBy(() -> guard.call(() -> {
+        calls.incrementAndGet();
+        throw new IOException("down");
+      })).isInstanceOf(IOException.class);
+    }
+
+    assertThat(guard.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    clock.advance(Duration.ofSeconds(10));
+    assertThatThrownBy(() -> guard.call(calls::incrementAndGet))
+      .isInstanceOfSatisfying(DependencyUnavailableException.class,
+        e -> assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(20)));
+    assertThat(calls).hasValue(3);
+    assertThat(meterRegistry.get("resilience.circuit.state").tag("dependency", "test").gauge().value()).isEqualTo(2);
+    assertThat(meterRegistry.get("resilience.calls").tag("outcome", "circuit_open").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void halfOpenProbeClosesOrReopensTheCircuit() throws Exception {
+    openCircuit();
+
+    clock.advance(Duration.ofSeconds(30));
+    assertThatThrownBy(() -> guard.call(() -> {
+      throw new IOException("still down");
+    })).isInstanceOf(IOException.class);
+    assertThat(guard.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    clock.advance(Duration.ofSeconds(30));
+    assertThat(guard.call(() -> "ok")).isEqualTo("ok");
+    assertThat(guard.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+  }
+
+  @Test
+  void bulkheadRejectsCallsBeyondTheConcurrencyLimit() throws Exception {
+    CountDownLatch entered = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      Future<String> slow = executor.submit(() -> guard.call(() -> {
+        entered.countDown();
+        release.await(5, TimeUnit.SECONDS);
+        return "slow";
+      }));
+      assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+      assertThat(guard.call(() -> "fast", e -> "fallback")).isEqualTo("fallback");
+      assertThat(meterRegistry.get("resilience.calls").tag("outcome", "bulkhead_full").counter().count()).isEqualTo(1);
+
+      release.countDown();
+      assertThat(slow.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+      assertThat(guard.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void interceptedResponseHoldsItsPermitUntilClosed() throws Exception {
+    ClientHttpResponse upstream = mock(ClientHttpResponse.class);
+    when(upstream.getStatusCode()).thenReturn(HttpStatus.OK);
+    ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+    when(execution.execute(any(), any())).thenReturn(upstream);
+
+    ClientHttpResponse response = new GuardedRequestInterceptor(guard)
+      .intercept(mock(HttpRequest.class), new byte[0], execution);
+
+    // Body not read yet: the only permit is still taken
+    assertThat(guard.call(() -> "next", e -> "fallback")).isEqualTo("fallback");
+    response.close();
+    response.close();
+    verify(upstream, times(2)).close();
+    assertThat(guard.call(() -> "next", e -> "fallback")).isEqualTo("next");
+  }
+
+  private void openCircuit() {
+    for (int i = 0; i < 3; i++) {
+      guard.call(() -> {
+        throw new IOException("down");
+      }, e -> null);
+    }
+    assertThat(guard.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
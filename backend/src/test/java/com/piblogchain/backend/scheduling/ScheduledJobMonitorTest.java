@@ -0,0 +1,66 @@
+package com.piblogchain.backend.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.support.ScheduledTaskObservationContext;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScheduledJobMonitorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final MockEnvironment environment = new MockEnvironment()
+    .withProperty("scheduling.jobs.default-max-duration-seconds", "30")
+    .withProperty("scheduling.jobs.Reports.rebuild.max-duration-seconds", "5");
+  private final ScheduledJobMonitor monitor = new ScheduledJobMonitor(meterRegistry, environment);
+
+  @Test
+  void runsLongerThanTheirBudgetAreCountedAsOverruns() {
+    Instant now = Instant.now();
+    monitor.recordRun("Reports.rebuild", now, Duration.ofSeconds(6), true, null);
+    monitor.recordRun("Reports.rebuild", now, Duration.ofSeconds(1), true, null);
+    monitor.recordRun("Other.job", now, Duration.ofSeconds(6), true, null);
+
+    ScheduledJobMonitor.JobRuns runs = monitor.runs().get("Reports.rebuild");
+    assertThat(runs.runs()).isEqualTo(2);
+    assertThat(runs.overruns()).isEqualTo(1);
+    assertThat(runs.lastDuration()).isEqualTo(Duration.ofSeconds(1));
+    assertThat(runs.maxDuration()).isEqualTo(Duration.ofSeconds(6));
+    assertThat(monitor.runs().get("Other.job").overruns()).isZero();
+    assertThat(meterRegistry.get("scheduling.job.overruns").tag("job", "Reports.rebuild").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void scheduledMethodsAreRecordedFromTheirObservations() throws Exception {
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+    observationRegistry.observationConfig().observationHandler(monitor);
+    ScheduledTaskObservationContext context =
+      new ScheduledTaskObservationContext(new Reports(), Reports.class.getMethod("rebuild"));
+
+    Observation observation = Observation.createNotStarted("tasks.scheduled.execution", () -> context, observationRegistry).start();
+    observation.error(new IllegalStateException("boom"));
+    observation.stop();
+
+    ScheduledJobMonitor.JobRuns runs = monitor.runs().get("ScheduledJobMonitorTest$Reports.rebuild");
+    assertThat(runs.runs()).isEqualTo(1);
+    assertThat(runs.failures()).isEqualTo(1);
+    assertThat(runs.lastSucceeded()).isFalse();
+  }
+
+  @Test
+  void jobNamesDropThePackage() {
+    assertThat(ScheduledJobMonitor.jobName("com.piblogchain.backend.utils.SessionCleanupTask.cleanExpiredSessions"))
+      .isEqualTo("SessionCleanupTask.cleanExpiredSessions");
+  }
+
+  static class Reports {
+    public void rebuild() {
+    }
+  }
+}
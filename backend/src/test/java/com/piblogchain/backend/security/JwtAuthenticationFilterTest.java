@@ -0,0 +1,91 @@
+package com.piblogchain.backend.security;
+
+import com.piblogchain.backend.utils.PiJwksKeyCache;
+import com.piblogchain.backend.utils.PiNetworkValidator;
+import com.piblogchain.backend.utils.VerifiedTokenCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+  private final PiJwksKeyCache jwksKeyCache = mock(PiJwksKeyCache.class);
+  private KeyPair keyPair;
+  private JwtAuthenticationFilter filter;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    keyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+    when(jwksKeyCache.resolveSigningKey(any(JwsHeader.class), any(Claims.class))).thenReturn(keyPair.getPublic());
+
+    PiNetworkValidator validator = new PiNetworkValidator(jwksKeyCache, new VerifiedTokenCache(100));
+    ReflectionTestUtils.setField(validator, "activeProfile", "prod");
+    filter = new JwtAuthenticationFilter(validator);
+  }
+
+  @AfterEach
+  void clearSecurityContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void tokenIsVerifiedOnceAndServedFromTheCacheUntilItExpires() throws Exception {
+    Instant expiresAt = Instant.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+    String token = Jwts.builder()
+      .setSubject("pi-user")
+      .claim("role", "USER")
+      .setExpiration(Date.from(expiresAt))
+      .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+      .compact();
+
+    assertThat(authenticate(token).getName()).isEqualTo("pi-user");
+    assertThat(authenticate(token).getAuthorities()).extracting(Object::toString).containsExactly("ROLE_USER");
+    verify(jwksKeyCache, times(1)).resolveSigningKey(any(JwsHeader.class), any(Claims.class));
+
+    // Once "exp" has passed the cached entry is dropped and the token is checked (and rejected) again
+    Thread.sleep(Duration.between(Instant.now(), expiresAt).plusMillis(100).toMillis());
+    MockHttpServletResponse expired = new MockHttpServletResponse();
+    filter.doFilter(request(token), expired, new MockFilterChain());
+
+    assertThat(expired.getStatus()).isEqualTo(401);
+    verify(jwksKeyCache, times(2)).resolveSigningKey(any(JwsHeader.class), any(Claims.class));
+  }
+
+  private Authentication authenticate(String token) throws Exception {
+    SecurityContextHolder.clearContext();
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request(token), response, new MockFilterChain());
+    assertThat(response.getStatus()).isEqualTo(200);
+    return SecurityContextHolder.getContext().getAuthentication();
+  }
+
+  private static MockHttpServletRequest request(String token) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/payments");
+    request.addHeader("Authorization", "Bearer " + token);
+    return request;
+  }
+}
@@ -0,0 +1,113 @@
+package com.piblogchain.backend.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final RateLimitFilter filter = new RateLimitFilter(
+    List.of("POST /api/contact=2/60", "GET /api/payments/slots/**=10/60"), 3, meterRegistry, now::get);
+
+  @AfterEach
+  void clearSecurityContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void clientsAreThrottledIndependentlyAndRefill() throws Exception {
+    assertThat(send("POST", "/api/contact", "10.0.0.1").getStatus()).isEqualTo(200);
+    assertThat(send("POST", "/api/contact", "10.0.0.1").getStatus()).isEqualTo(200);
+
+    MockHttpServletResponse rejected = send("POST", "/api/contact", "10.0.0.1");
+    assertThat(rejected.getStatus()).isEqualTo(429);
+    assertThat(rejected.getHeader("Retry-After")).isEqualTo("30");
+    assertThat(send("POST", "/api/contact", "10.0.0.2").getStatus()).isEqualTo(200);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+    assertThat(send("POST", "/api/contact", "10.0.0.1").getStatus()).isEqualTo(200);
+    assertThat(meterRegistry.counter("http.server.requests.throttled", "rule", "POST /api/contact").count()).isEqualTo(1);
+  }
+
+  @Test
+  void unmatchedRoutesAreNotLimited() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      assertThat(send("GET", "/api/contact", "10.0.0.1").getStatus()).isEqualTo(200);
+    }
+    assertThat(filter.trackedClients()).isZero();
+  }
+
+  @Test
+  void authenticatedUsersAreKeyedByPrincipal() throws Exception {
+    SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+      "pi-user", null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+
+    send("POST", "/api/contact", "10.0.0.1");
+    send("POST", "/api/contact", "10.0.0.2");
+
+    assertThat(send("POST", "/api/contact", "10.0.0.3").getStatus()).isEqualTo(429);
+  }
+
+  @Test
+  void refilledBucketsAreEvictedAndClientCountIsCapped() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      send("GET", "/api/payments/slots", "10.0.1." + i);
+    }
+    assertThat(filter.trackedClients()).isEqualTo(3);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    filter.evictIdleBuckets();
+    assertThat(filter.trackedClients()).isEqualTo(3);
+
+    now.addAndGet(TimeUnit.SECONDS.toNanos(60));
+    filter.evictIdleBuckets();
+    assertThat(filter.trackedClients()).isZero();
+  }
+
+  // Past max-clients every new client still gets its own bucket instead of sharing one
+  @Test
+  void newClientsPastTheCapAreNotThrottledTogether() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      assertThat(send("POST", "/api/contact", "10.0.2." + i).getStatus()).isEqualTo(200);
+      assertThat(send("POST", "/api/contact", "10.0.2." + i).getStatus()).isEqualTo(200);
+    }
+    assertThat(filter.trackedClients()).isEqualTo(3);
+  }
+
+  @Test
+  void leastRecentlySeenClientIsEvictedFirst() throws Exception {
+    send("POST", "/api/contact", "10.0.3.1");
+    send("POST", "/api/contact", "10.0.3.1");
+    send("POST", "/api/contact", "10.0.3.2");
+    assertThat(send("POST", "/api/contact", "10.0.3.1").getStatus()).isEqualTo(429);
+
+    // 10.0.3.2 is now the least recently seen and makes room for 10.0.3.4
+    send("POST", "/api/contact", "10.0.3.3");
+    send("POST", "/api/contact", "10.0.3.4");
+
+    assertThat(filter.trackedClients()).isEqualTo(3);
+    assertThat(send("POST", "/api/contact", "10.0.3.1").getStatus()).isEqualTo(429);
+  }
+
+  private MockHttpServletResponse send(String method, String path, String remoteAddr) throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+    request.setRemoteAddr(remoteAddr);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
@@ -0,0 +1,114 @@
+package com.piblogchain.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.piblogchain.backend.TestArticles;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+  "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+  "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ArticleDetailCacheTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ArticleRepository articleRepository;
+
+  private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private Statistics statistics;
+  private Category category;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManager.getEntityManager()
+      .getEntityManagerFactory()
+      .unwrap(SessionFactory.class)
+      .getStatistics();
+    category = entityManager.persist(new Category("Games", "games"));
+  }
+
+  @Test
+  void repeatedReadsAreServedFromMemoryUntilInvalidated() {
+    Long id = persistArticle("First title");
+    ArticleDetailCache cache = new ArticleDetailCache(articleRepository, objectMapper, meterRegistry, 100, 1 << 20);
+
+    String loaded = json(cache, id);
+    statistics.clear();
+    String cached = json(cache, id);
+
+    assertThat(cached).isEqualTo(loaded).contains("First title", "MAIN_SLIDER", "games");
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+    assertThat(meterRegistry.get("cache.gets").tag("result", "hit").counter().count()).isEqualTo(1);
+
+    Article article = articleRepository.findById(id).orElseThrow();
+    article.setTitle("Second title");
+    articleRepository.saveAndFlush(article);
+    entityManager.clear();
+    cache.invalidate(id);
+
+    assertThat(json(cache, id)).contains("Second title");
+  }
+
+  @Test
+  void evictsLeastRecentlyReadArticlesBeyondTheSizeBudget() {
+    Long first = persistArticle("First");
+    Long second = persistArticle("Second");
+    Long third = persistArticle("Third");
+    int articleBytes = new ArticleDetailCache(articleRepository, objectMapper, meterRegistry, 100, 1 << 20)
+      .get(first).orElseThrow().length;
+
+    // Room for two articles by weight, plenty by count
+    ArticleDetailCache cache = new ArticleDetailCache(articleRepository, objectMapper, new SimpleMeterRegistry(), 100, articleBytes * 2L + 8);
+    cache.get(first);
+    cache.get(second);
+    cache.get(first);
+    cache.get(third);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.weight()).isLessThanOrEqualTo(articleBytes * 2L + 8);
+    statistics.clear();
+    cache.get(first);
+    cache.get(third);
+    assertThat(statistics.getPrepareStatementCount()).isZero();
+  }
+
+  @Test
+  void missingArticlesAreNotCached() {
+    ArticleDetailCache cache = new ArticleDetailCache(articleRepository, objectMapper, meterRegistry, 100, 1 << 20);
+
+    assertThat(cache.get(-1L)).isEmpty();
+    assertThat(cache.size()).isZero();
+  }
+
+  private String json(ArticleDetailCache cache, Long id) {
+    return new String(cache.get(id).orElseThrow(), StandardCharsets.UTF_8);
+  }
+
+  private Long persistArticle(String title) {
+    Article article = TestArticles.article(title, ArticleStatus.PUBLISHED, category);
+    TestArticles.promote(article, PromoteType.MAIN_SLIDER);
+    Long id = entityManager.persist(article).getId();
+    entityManager.flush();
+    entityManager.clear();
+    return id;
+  }
+}
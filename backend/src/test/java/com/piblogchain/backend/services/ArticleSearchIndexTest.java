@@ -0,0 +1,92 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.TestArticles;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.transaction.TestTransaction;
+
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class ArticleSearchIndexTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private ArticleRepository articleRepository;
+
+  private Category category;
+
+  @BeforeEach
+  void setUp() {
+    category = entityManager.persist(new Category("Games", "games"));
+  }
+
+  @Test
+  void ranksPublishedArticlesByRelevanceWithPrefixMatching() {
+    Article titleMatch = persistArticle("Pi Wallet guide", "<p>How to get started</p>", ArticleStatus.PUBLISHED);
+    Article contentMatch = persistArticle("Marketplace news", "<p>The <b>wallet</b> integration is live</p>", ArticleStatus.PUBLISHED);
+    persistArticle("Wallet draft", "<p>wallet wallet</p>", ArticleStatus.DRAFT);
+    Article accented = persistArticle("Aplicación de pagos", "<p>Pagos con Pi</p>", ArticleStatus.PUBLISHED);
+    persistArticle("Unrelated", "<p>Nothing to see</p>", ArticleStatus.PUBLISHED);
+    // Smaller than the article count, so the load takes several batches
+    ArticleSearchIndex index = new ArticleSearchIndex(articleRepository, new SimpleMeterRegistry(), 2);
+
+    assertThat(index.search("wallet", 10)).containsExactly(titleMatch.getId(), contentMatch.getId());
+    assertThat(index.search("WALL", 10)).containsExactly(titleMatch.getId(), contentMatch.getId());
+    assertThat(index.search("aplicacion", 10)).containsExactly(accented.getId());
+    assertThat(index.search("integration", 10)).containsExactly(contentMatch.getId());
+    assertThat(index.search("wallet", 1)).containsExactly(titleMatch.getId());
+    assertThat(index.search("<b>", 10)).isEmpty();
+    assertThat(index.size()).isEqualTo(4);
+  }
+
+  @Test
+  void writesAreAppliedOnlyAfterCommit() {
+    Article article = persistArticle("Pi Wallet guide", "<p>How to get started</p>", ArticleStatus.PUBLISHED);
+    ArticleSearchIndex index = new ArticleSearchIndex(articleRepository, new SimpleMeterRegistry(), 200);
+    assertThat(index.search("wallet", 10)).containsExactly(article.getId());
+    long loadedVersion = index.version();
+
+    article.setTitle("Pi Browser guide");
+    index.index(article);
+    assertThat(index.search("browser", 10)).isEmpty();
+    // Rolled back: the pending change is dropped
+    TestTransaction.end();
+    assertThat(index.search("browser", 10)).isEmpty();
+
+    // Outside a transaction changes apply at once
+    index.index(article);
+    assertThat(index.search("browser", 10)).containsExactly(article.getId());
+    assertThat(index.search("wallet", 10)).isEmpty();
+
+    article.setStatus(ArticleStatus.PENDING_APPROVAL);
+    index.index(article);
+    assertThat(index.search("browser", 10)).isEmpty();
+
+    article.setStatus(ArticleStatus.PUBLISHED);
+    index.index(article);
+    index.remove(article.getId());
+    assertThat(index.search("guide", 10)).isEmpty();
+    assertThat(index.terms()).isZero();
+    assertThat(index.version()).isGreaterThan(loadedVersion);
+  }
+
+  private Article persistArticle(String title, String content, ArticleStatus status) {
+    Article article = TestArticles.article(title, status, category);
+    article.setContent(content);
+    entityManager.persist(article);
+    entityManager.flush();
+    return article;
+  }
+}
@@ -0,0 +1,70 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.repositories.CategoryRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+  "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+  "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class CategoryCatalogTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private CategoryRepository categoryRepository;
+
+  private Statistics statistics;
+  private CategoryCatalog catalog;
+
+  @BeforeEach
+  void setUp() {
+    statistics = entityManager.getEntityManager()
+      .getEntityManagerFactory()
+      .unwrap(SessionFactory.class)
+      .getStatistics();
+    catalog = new CategoryCatalog(categoryRepository);
+    entityManager.persist(new Category("Games", "games"));
+    entityManager.persist(new Category("Marketplaces", "marketplaces"));
+    entityManager.flush();
+  }
+
+  @Test
+  void lookupsAreServedFromOneLoad() {
+    statistics.clear();
+
+    assertThat(catalog.findAll()).hasSize(2);
+    Category games = catalog.findByName("GAMES").orElseThrow();
+    assertThat(catalog.findBySlug("Marketplaces")).map(Category::getName).contains("Marketplaces");
+    assertThat(catalog.findById(games.getId())).contains(games);
+    assertThat(catalog.findByName("Tools")).isEmpty();
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void refreshPublishesWrites() {
+    Category games = catalog.findBySlug("games").orElseThrow();
+
+    Category stored = categoryRepository.findById(games.getId()).orElseThrow();
+    stored.setName("Juegos");
+    categoryRepository.saveAndFlush(stored);
+    categoryRepository.saveAndFlush(new Category("Tools", "tools"));
+    assertThat(catalog.findBySlug("tools")).isEmpty();
+
+    catalog.refresh();
+
+    assertThat(catalog.findBySlug("tools")).isPresent();
+    assertThat(catalog.findBySlug("games")).map(Category::getName).contains("Juegos");
+    assertThat(games.getName()).isEqualTo("Games");
+  }
+}
@@ -0,0 +1,129 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.dto.ContactRequest;
+import com.piblogchain.backend.enums.OutboundEmailStatus;
+import com.piblogchain.backend.models.OutboundEmail;
+import com.piblogchain.backend.repositories.OutboundEmailRepository;
+import com.piblogchain.backend.resilience.DependencyUnavailableException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailSendException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class ContactMailQueueTest {
+
+  @Autowired
+  private OutboundEmailRepository outboundEmailRepository;
+
+  private EmailService emailService;
+  private ContactMailQueue contactMailQueue;
+
+  @BeforeEach
+  void setUp() {
+    emailService = mock(EmailService.class);
+    // No workers: the test drives deliveries itself
+    contactMailQueue = new ContactMailQueue(outboundEmailRepository, emailService, 10, 0, 3, 2, 30, 60, 120, false);
+  }
+
+  @Test
+  void sentMessagesLeaveTheSpool() {
+    contactMailQueue.enqueue(contactRequest());
+    OutboundEmail spooled = outboundEmailRepository.findAll().get(0);
+
+    contactMailQueue.deliver(spooled.getId());
+
+    verify(emailService).sendEmail(any(ContactRequest.class));
+    assertThat(outboundEmailRepository.count()).isZero();
+  }
+
+  @Test
+  void failedSendsBackOffAndGiveUpAfterMaxAttempts() {
+    doThrow(new MailSendException("smtp down")).when(emailService).sendEmail(any(ContactRequest.class));
+    contactMailQueue.enqueue(contactRequest());
+    Long id = outboundEmailRepository.findAll().get(0).getId();
+
+    contactMailQueue.deliver(id);
+    OutboundEmail afterFirst = outboundEmailRepository.findById(id).orElseThrow();
+    assertThat(afterFirst.getStatus()).isEqualTo(OutboundEmailStatus.PENDING);
+    assertThat(afterFirst.getAttempts()).isEqualTo(1);
+    assertThat(afterFirst.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(20));
+
+    contactMailQueue.deliver(id);
+    assertThat(outboundEmailRepository.findById(id).orElseThrow().getNextAttemptAt())
+      .isAfter(LocalDateTime.now().plusSeconds(50));
+
+    contactMailQueue.deliver(id);
+    OutboundEmail failed = outboundEmailRepository.findById(id).orElseThrow();
+    assertThat(failed.getStatus()).isEqualTo(OutboundEmailStatus.FAILED);
+    assertThat(failed.getLastError()).contains("smtp down");
+
+    contactMailQueue.deliver(id);
+    verify(emailService, times(3)).sendEmail(any(ContactRequest.class));
+  }
+
+  @Test
+  void openCircuitPostponesWithoutSpendingAnAttempt() {
+    doThrow(new DependencyUnavailableException("Circuit open for smtp", Duration.ofSeconds(45)))
+      .when(emailService).sendEmail(any(ContactRequest.class));
+    contactMailQueue.enqueue(contactRequest());
+    Long id = outboundEmailRepository.findAll().get(0).getId();
+
+    for (int i = 0; i < 5; i++) {
+      contactMailQueue.deliver(id);
+    }
+
+    OutboundEmail postponed = outboundEmailRepository.findById(id).orElseThrow();
+    assertThat(postponed.getStatus()).isEqualTo(OutboundEmailStatus.PENDING);
+    assertThat(postponed.getAttempts()).isZero();
+    assertThat(postponed.getNextAttemptAt())
+      .isAfter(LocalDateTime.now().plusSeconds(40))
+      .isBefore(LocalDateTime.now().plusSeconds(50));
+  }
+
+  @Test
+  void claimedMessagesAreNotSentTwice() {
+    contactMailQueue.enqueue(contactRequest());
+    Long id = outboundEmailRepository.findAll().get(0).getId();
+    LocalDateTime now = LocalDateTime.now();
+    outboundEmailRepository.claim(id, OutboundEmailStatus.PENDING, now, now.plusMinutes(2));
+
+    contactMailQueue.deliver(id);
+
+    verify(emailService, never()).sendEmail(any(ContactRequest.class));
+    assertThat(outboundEmailRepository.findDueIds(OutboundEmailStatus.PENDING, now.plusMinutes(1),
+      Pageable.unpaged())).isEmpty();
+  }
+
+  @Test
+  void fullSpoolRejectsNewMessages() {
+    contactMailQueue.enqueue(contactRequest());
+    contactMailQueue.enqueue(contactRequest());
+
+    assertThatThrownBy(() -> contactMailQueue.enqueue(contactRequest()))
+      .isInstanceOf(ResponseStatusException.class);
+  }
+
+  private static ContactRequest contactRequest() {
+    ContactRequest request = new ContactRequest();
+    request.setName("Ada");
+    request.setEmail("ada@example.com");
+    request.setMessage("Hello from the contact form");
+    return request;
+  }
+}
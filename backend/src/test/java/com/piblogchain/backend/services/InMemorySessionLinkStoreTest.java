@@ -0,0 +1,88 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.User;
+import com.piblogchain.backend.models.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemorySessionLinkStoreTest {
+
+  private final MutableClock clock = new MutableClock();
+  private final InMemorySessionLinkStore store = new InMemorySessionLinkStore(Duration.ofMinutes(10), 3, clock);
+  private final User user = new User("pi-1", "ada", "ada@example.com", UserRole.USER);
+
+  @Test
+  void codesArePendingUntilLinked() {
+    store.create("code-1");
+    assertThat(store.findUser("code-1")).isEmpty();
+
+    assertThat(store.link("code-1", user)).isTrue();
+    assertThat(store.findUser("code-1")).contains(user);
+    assertThat(store.link("unknown", user)).isFalse();
+  }
+
+  @Test
+  void codesExpireAfterTheirTtlEvenBeforeTheSweep() {
+    store.create("code-1");
+    clock.advance(Duration.ofMinutes(5));
+    store.create("code-2");
+    store.link("code-1", user);
+    store.link("code-2", user);
+
+    clock.advance(Duration.ofMinutes(5));
+    assertThat(store.findUser("code-1")).isEmpty();
+    assertThat(store.link("code-1", user)).isFalse();
+    assertThat(store.findUser("code-2")).contains(user);
+
+    store.removeExpired();
+    assertThat(store.size()).isEqualTo(1);
+    clock.advance(Duration.ofMinutes(5));
+    store.removeExpired();
+    assertThat(store.size()).isZero();
+  }
+
+  @Test
+  void pendingCodesAreBounded() {
+    store.create("code-1");
+    store.create("code-2");
+    store.create("code-3");
+    assertThatThrownBy(() -> store.create("code-4")).isInstanceOf(ResponseStatusException.class);
+
+    clock.advance(Duration.ofMinutes(10));
+    store.create("code-4");
+    assertThat(store.size()).isEqualTo(1);
+  }
+
+  private static final class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.dto.PaymentCompleteRequest;
+import com.piblogchain.backend.dto.PaymentCreateRequest;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PaymentStatus;
+import com.piblogchain.backend.enums.PlanType;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.models.Payment;
+import com.piblogchain.backend.repositories.ArticlePromotionRepository;
+import com.piblogchain.backend.repositories.ArticleRepository;
+import com.piblogchain.backend.repositories.CategoryRepository;
+import com.piblogchain.backend.repositories.PaymentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PaymentServiceTest {
+
+  private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+  private final ArticleRepository articleRepository = mock(ArticleRepository.class);
+  private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+  private final SlotReservationService slotReservationService = mock(SlotReservationService.class);
+  private final PiPriceService piPriceService = mock(PiPriceService.class);
+  private PaymentService paymentService;
+
+  @BeforeEach
+  void setUp() {
+    paymentService = new PaymentService(
+      new MockEnvironment(), paymentRepository, articleRepository, categoryRepository,
+      mock(ArticlePromotionRepository.class), mock(PromotionReadModel.class), mock(ArticleDetailCache.class),
+      slotReservationService, piPriceService, false);
+    when(piPriceService.getPrice()).thenReturn(new PiPriceService.PiPrice(0.5, Instant.now(), false));
+    when(paymentRepository.save(any(Payment.class))).thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @Test
+  void createPaymentKeepsTheReservedCategory() {
+    PaymentCreateRequest request = new PaymentCreateRequest("alice", PlanType.CATEGORY_SLIDER, "payment-1");
+    request.setCategorySlug("games");
+
+    paymentService.createPayment(request);
+
+    ArgumentCaptor<Payment> saved = ArgumentCaptor.forClass(Payment.class);
+    verify(paymentRepository).save(saved.capture());
+    assertThat(saved.getValue().getCategorySlug()).isEqualTo("games");
+    verify(slotReservationService).reserve("payment-1", PromoteType.CATEGORY_SLIDER, "games");
+  }
+
+  // The new article goes into the reserved category, so the slot committed is the one leased
+  @Test
+  void completePaymentCommitsTheReservedCategory() {
+    Category games = new Category("Games", "games");
+    when(paymentRepository.findByPaymentId("payment-1")).thenReturn(Optional.of(payment("games")));
+    when(categoryRepository.findBySlug("games")).thenReturn(Optional.of(games));
+
+    paymentService.completePayment(new PaymentCompleteRequest("payment-1", "tx-1", null));
+
+    verify(slotReservationService).commit("payment-1", PromoteType.CATEGORY_SLIDER, "games");
+    ArgumentCaptor<Article> saved = ArgumentCaptor.forClass(Article.class);
+    verify(articleRepository).save(saved.capture());
+    assertThat(saved.getValue().getStatus()).isEqualTo(ArticleStatus.DRAFT);
+    assertThat(saved.getValue().getCategorySlug()).isEqualTo("games");
+  }
+
+  @Test
+  void completePaymentMovesAnExistingArticleToTheReservedCategory() {
+    Category games = new Category("Games", "games");
+    Article article = new Article();
+    article.setCategory(new Category("Tools", "tools"));
+    when(paymentRepository.findByPaymentId("payment-1")).thenReturn(Optional.of(payment("games")));
+    when(categoryRepository.findBySlug("games")).thenReturn(Optional.of(games));
+    when(articleRepository.findById(7L)).thenReturn(Optional.of(article));
+
+    paymentService.completePayment(new PaymentCompleteRequest("payment-1", "tx-1", 7L));
+
+    verify(slotReservationService).commit("payment-1", PromoteType.CATEGORY_SLIDER, "games");
+    assertThat(article.getCategorySlug()).isEqualTo("games");
+  }
+
+  private static Payment payment(String categorySlug) {
+    Payment payment = new Payment();
+    payment.setPaymentId("payment-1");
+    payment.setUsername("alice");
+    payment.setPlanType(PlanType.CATEGORY_SLIDER.name());
+    payment.setStatus(PaymentStatus.APPROVED);
+    payment.setCategorySlug(categorySlug);
+    return payment;
+  }
+}
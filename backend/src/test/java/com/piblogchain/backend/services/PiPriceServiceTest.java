@@ -0,0 +1,83 @@
+package com.piblogchain.backend.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PiPriceServiceTest {
+
+  private final RestTemplate restTemplate = mock(RestTemplate.class);
+
+  @Test
+  void concurrentCallersShareOneFetch() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    when(restTemplate.getForObject(anyString(), eq(Map.class))).thenAnswer(invocation -> {
+      release.await(5, TimeUnit.SECONDS);
+      return ticker("0.75");
+    });
+    PiPriceService service = new PiPriceService(restTemplate, 60, 15, 3600, 5, 10);
+    ExecutorService callers = Executors.newFixedThreadPool(8);
+
+    try {
+      List<Future<PiPriceService.PiPrice>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        results.add(callers.submit(service::getPrice));
+      }
+      Thread.sleep(100);
+      release.countDown();
+
+      for (Future<PiPriceService.PiPrice> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).usd()).isEqualTo(0.75);
+      }
+    } finally {
+      callers.shutdownNow();
+    }
+    verify(restTemplate, times(1)).getForObject(anyString(), eq(Map.class));
+  }
+
+  @Test
+  void servesLastGoodPriceAsStaleWhenOkxFails() {
+    when(restTemplate.getForObject(anyString(), eq(Map.class)))
+      .thenReturn(ticker("0.5"))
+      .thenThrow(new ResourceAccessException("timeout"));
+    PiPriceService service = new PiPriceService(restTemplate, 0, 0, 3600, 5, 10);
+
+    PiPriceService.PiPrice fresh = service.getPrice();
+    PiPriceService.PiPrice stale = service.getPrice();
+
+    assertThat(fresh.stale()).isFalse();
+    assertThat(stale.usd()).isEqualTo(0.5);
+    assertThat(stale.stale()).isTrue();
+  }
+
+  @Test
+  void failsWhenThereIsNoPriceToFallBackTo() {
+    when(restTemplate.getForObject(anyString(), eq(Map.class))).thenThrow(new ResourceAccessException("timeout"));
+    PiPriceService service = new PiPriceService(restTemplate, 60, 15, 3600, 5, 10);
+
+    assertThatThrownBy(service::getPrice).isInstanceOf(ResponseStatusException.class);
+  }
+
+  private static Map<String, Object> ticker(String last) {
+    return Map.of("data", List.of(Map.of("last", last)));
+  }
+}
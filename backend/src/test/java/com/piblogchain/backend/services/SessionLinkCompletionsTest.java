@@ -0,0 +1,76 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.models.User;
+import com.piblogchain.backend.models.UserRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SessionLinkCompletionsTest {
+
+  private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+  private final SessionLinkCompletions completions = new SessionLinkCompletions(messagingTemplate, 2);
+  private final User user = new User("pi-1", "ada", "ada@example.com", UserRole.USER);
+
+  @Test
+  void completionWakesWaitersAndPushesToTheTopic() {
+    List<User> woken = new ArrayList<>();
+    completions.await("code-1", woken::add);
+    completions.await("code-1", woken::add);
+
+    completions.complete("code-1", user);
+
+    assertThat(woken).containsExactly(user, user);
+    assertThat(completions.waiting()).isZero();
+    verify(messagingTemplate).convertAndSend("/topic/session/code-1", Map.of("username", "ada", "piId", "pi-1"));
+  }
+
+  @Test
+  void cancelledWaitersAreNotCalledAndFreeTheirSlot() {
+    List<User> woken = new ArrayList<>();
+    Runnable stopWaiting = completions.await("code-1", woken::add);
+    completions.await("code-2", woken::add);
+    assertThatThrownBy(() -> completions.await("code-3", woken::add)).isInstanceOf(ResponseStatusException.class);
+
+    stopWaiting.run();
+    stopWaiting.run();
+    completions.await("code-3", woken::add);
+    completions.complete("code-1", user);
+
+    assertThat(woken).isEmpty();
+    assertThat(completions.waiting()).isEqualTo(2);
+  }
+
+  @Test
+  void waitersRacingWithCompletionAreEitherWokenOrNeverCounted() throws Exception {
+    SessionLinkCompletions completions = new SessionLinkCompletions(messagingTemplate, 10_000);
+    AtomicInteger woken = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    for (int i = 0; i < 2_000; i++) {
+      String code = "code-" + (i % 10);
+      executor.execute(() -> completions.await(code, linked -> woken.incrementAndGet()));
+      executor.execute(() -> completions.complete(code, user));
+    }
+    executor.shutdown();
+    assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+    for (int i = 0; i < 10; i++) {
+      completions.complete("code-" + i, user);
+    }
+    assertThat(woken).hasValue(2_000);
+    assertThat(completions.waiting()).isZero();
+  }
+}
@@ -0,0 +1,177 @@
+package com.piblogchain.backend.services;
+
+import com.piblogchain.backend.TestArticles;
+import com.piblogchain.backend.enums.ArticleStatus;
+import com.piblogchain.backend.enums.PromoteType;
+import com.piblogchain.backend.models.Article;
+import com.piblogchain.backend.models.Category;
+import com.piblogchain.backend.models.SlotLease;
+import com.piblogchain.backend.repositories.ArticlePromotionRepository;
+import com.piblogchain.backend.repositories.SlotGuardRepository;
+import com.piblogchain.backend.repositories.SlotLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class SlotReservationServiceTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private SlotGuardRepository slotGuardRepository;
+
+  @Autowired
+  private SlotLeaseRepository slotLeaseRepository;
+
+  @Autowired
+  private ArticlePromotionRepository articlePromotionRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private SlotReservationService slotReservationService;
+
+  @BeforeEach
+  void setUp() {
+    slotReservationService = new SlotReservationService(
+      slotGuardRepository, slotLeaseRepository, articlePromotionRepository, transactionManager, 900);
+  }
+
+  @Test
+  void leasesCountAgainstCapacity() {
+    for (int i = 0; i < SlotReservationService.SLIDER_SLOTS; i++) {
+      slotReservationService.reserve("payment-" + i, PromoteType.MAIN_SLIDER, null);
+    }
+
+    slotReservationService.reserve("payment-0", PromoteType.MAIN_SLIDER, null);
+    assertThatThrownBy(() -> slotReservationService.reserve("payment-late", PromoteType.MAIN_SLIDER, null))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThat(slotReservationService.countUsedSlots(PromoteType.MAIN_SLIDER, null))
+      .isEqualTo(SlotReservationService.SLIDER_SLOTS);
+  }
+
+  @Test
+  void commitConsumesOwnLeaseAndBlocksOthers() {
+    Category games = entityManager.persist(new Category("Games", "games"));
+    for (int i = 0; i < SlotReservationService.SLIDER_SLOTS - 1; i++) {
+      persistPromotedArticle(games, ArticleStatus.PUBLISHED);
+    }
+    slotReservationService.reserve("payment-1", PromoteType.CATEGORY_SLIDER, "Games");
+
+    slotReservationService.commit("payment-1", PromoteType.CATEGORY_SLIDER, "games");
+    persistPromotedArticle(games, ArticleStatus.PUBLISHED);
+
+    assertThat(slotLeaseRepository.findByPaymentId("payment-1")).isEmpty();
+    assertThatThrownBy(() -> slotReservationService.acquire(PromoteType.CATEGORY_SLIDER, "games"))
+      .isInstanceOf(IllegalArgumentException.class);
+    slotReservationService.acquire(PromoteType.CATEGORY_SLIDER, "tools");
+  }
+
+  // A completed payment creates a draft article; its promotion must keep the slot the lease held
+  @Test
+  void draftArticlesKeepTheSlotOfTheirPayment() {
+    Category games = entityManager.persist(new Category("Games", "games"));
+    for (int i = 0; i < SlotReservationService.SLIDER_SLOTS; i++) {
+      String paymentId = "payment-" + i;
+      slotReservationService.reserve(paymentId, PromoteType.CATEGORY_SLIDER, "games");
+      slotReservationService.commit(paymentId, PromoteType.CATEGORY_SLIDER, "games");
+      persistPromotedArticle(games, ArticleStatus.DRAFT);
+    }
+
+    assertThat(slotReservationService.countUsedSlots(PromoteType.CATEGORY_SLIDER, "games"))
+      .isEqualTo(SlotReservationService.SLIDER_SLOTS);
+    assertThat(slotReservationService.countUsedCategorySlots()).containsEntry("games", (long) SlotReservationService.SLIDER_SLOTS);
+    assertThatThrownBy(() -> slotReservationService.reserve("payment-late", PromoteType.CATEGORY_SLIDER, "games"))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void expiredAndReleasedLeasesFreeTheirSlot() {
+    for (int i = 0; i < SlotReservationService.SLIDER_SLOTS - 1; i++) {
+      slotReservationService.reserve("payment-" + i, PromoteType.MAIN_SLIDER, null);
+    }
+    slotLeaseRepository.save(new SlotLease("abandoned", PromoteType.MAIN_SLIDER, "", LocalDateTime.now().minusMinutes(1)));
+    slotReservationService.reserve("payment-last", PromoteType.MAIN_SLIDER, null);
+
+    slotReservationService.release("payment-last");
+    slotReservationService.removeExpiredLeases();
+
+    assertThat(slotLeaseRepository.findByPaymentId("abandoned")).isEmpty();
+    assertThat(slotReservationService.countUsedSlots(PromoteType.MAIN_SLIDER, null))
+      .isEqualTo(SlotReservationService.SLIDER_SLOTS - 1);
+  }
+
+  // Each reservation commits in its own READ COMMITTED transaction, as it does behind PaymentService
+  @Test
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  void concurrentReservationsDoNotOverbookTheLastSlot() throws Exception {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    int racers = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(racers);
+    try {
+      for (int i = 0; i < SlotReservationService.SLIDER_SLOTS - 1; i++) {
+        String paymentId = "payment-" + i;
+        transaction.executeWithoutResult(status ->
+          slotReservationService.reserve(paymentId, PromoteType.MAIN_SLIDER, null));
+      }
+
+      CyclicBarrier start = new CyclicBarrier(racers);
+      List<Future<Boolean>> attempts = new ArrayList<>();
+      for (int i = 0; i < racers; i++) {
+        String paymentId = "racer-" + i;
+        attempts.add(executor.submit(() -> {
+          start.await();
+          try {
+            transaction.executeWithoutResult(status ->
+              slotReservationService.reserve(paymentId, PromoteType.MAIN_SLIDER, null));
+            return true;
+          } catch (IllegalArgumentException e) {
+            return false;
+          }
+        }));
+      }
+
+      int reserved = 0;
+      for (Future<Boolean> attempt : attempts) {
+        if (attempt.get(10, TimeUnit.SECONDS)) reserved++;
+      }
+      assertThat(reserved).isEqualTo(1);
+      assertThat(slotReservationService.countUsedSlots(PromoteType.MAIN_SLIDER, null))
+        .isEqualTo(SlotReservationService.SLIDER_SLOTS);
+    } finally {
+      executor.shutdownNow();
+      transaction.executeWithoutResult(status -> {
+        slotLeaseRepository.deleteAll();
+        slotGuardRepository.deleteAll();
+      });
+    }
+  }
+
+  private void persistPromotedArticle(Category category, ArticleStatus status) {
+    Article article = TestArticles.article("Title", status, category);
+    TestArticles.promote(article, PromoteType.CATEGORY_SLIDER);
+    entityManager.persistAndFlush(article);
+  }
+}
@@ -0,0 +1,117 @@
+package com.piblogchain.backend.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedResponseCacheTest {
+
+  private static final CacheControl CACHE = CacheControl.noCache().cachePublic();
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final CompressedResponseCache cache = new CompressedResponseCache(objectMapper, new SimpleMeterRegistry(), 2, 512);
+  private final AtomicInteger serializations = new AtomicInteger();
+
+  @Test
+  void bodiesAreBuiltOncePerVersionAndGzippedForClientsThatAcceptIt() throws IOException {
+    ResponseEntity<byte[]> gzipped = cache.json(request("gzip, deflate, br"), "featured", "\"v1\"", CACHE, this::videos);
+    ResponseEntity<byte[]> plain = cache.json(request(null), "featured", "\"v1\"", CACHE, this::videos);
+
+    assertThat(serializations).hasValue(1);
+    assertThat(gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    assertThat(gzipped.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    assertThat(gzipped.getBody().length).isLessThan(plain.getBody().length);
+    assertThat(gunzip(gzipped.getBody())).isEqualTo(plain.getBody());
+    assertThat(plain.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+
+    cache.json(request("gzip"), "featured", "\"v2\"", CACHE, this::videos);
+    assertThat(serializations).hasValue(2);
+  }
+
+  @Test
+  void gzipAndIdentityBodiesHaveTheirOwnETagAndEitherRevalidates() {
+    String etag = ConditionalGet.etag("featured", 1);
+    ResponseEntity<byte[]> gzipped = cache.json(request("gzip"), "featured", etag, CACHE, this::videos);
+    ResponseEntity<byte[]> plain = cache.json(request(null), "featured", etag, CACHE, this::videos);
+
+    assertThat(plain.getHeaders().getETag()).isEqualTo(etag);
+    assertThat(gzipped.getHeaders().getETag()).isEqualTo(ConditionalGet.gzipETag(etag)).isNotEqualTo(etag);
+
+    for (String held : List.of(plain.getHeaders().getETag(), gzipped.getHeaders().getETag())) {
+      MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/articles/featured");
+      revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, held);
+      ResponseEntity<byte[]> notModified = cache.json(new ServletWebRequest(revalidation), "featured", etag, CACHE, this::videos);
+
+      assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+      assertThat(notModified.getHeaders().getETag()).isEqualTo(held);
+      assertThat(notModified.getHeaders().getVary()).containsExactly(HttpHeaders.ACCEPT_ENCODING);
+    }
+    assertThat(serializations).hasValue(1);
+  }
+
+  @Test
+  void smallBodiesAreNotCompressed() {
+    ResponseEntity<byte[]> small = cache.json(request("gzip"), "categories", "\"v1\"", CACHE, () -> List.of("games"));
+
+    assertThat(small.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+  }
+
+  @Test
+  void leastRecentlyServedEntryIsEvictedAndNullKeysAreNotCached() {
+    cache.json(request("gzip"), "categories", "\"v1\"", CACHE, () -> List.of("games"));
+    cache.json(request("gzip"), "featured", "\"v1\"", CACHE, this::videos);
+    cache.json(request("gzip"), "categories", "\"v1\"", CACHE, () -> List.of("games"));
+    cache.json(request("gzip"), "promoted-videos:category:games", "\"v1\"", CACHE, List::of);
+    cache.json(request("gzip"), null, "\"v1\"", CACHE, this::videos);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.contains("categories")).isTrue();
+    assertThat(cache.contains("promoted-videos:category:games")).isTrue();
+    assertThat(cache.contains("featured")).isFalse();
+    assertThat(serializations).hasValue(2);
+  }
+
+  @Test
+  void gzipIsOnlyUsedWhenAccepted() {
+    assertThat(CompressedResponseCache.acceptsGzip("gzip;q=0.5")).isTrue();
+    assertThat(CompressedResponseCache.acceptsGzip("*")).isTrue();
+    assertThat(CompressedResponseCache.acceptsGzip("br, gzip;q=0")).isFalse();
+    assertThat(CompressedResponseCache.acceptsGzip("*;q=1, gzip; q=0.0")).isFalse();
+    assertThat(CompressedResponseCache.acceptsGzip("identity")).isFalse();
+    assertThat(CompressedResponseCache.acceptsGzip(null)).isFalse();
+  }
+
+  private List<String> videos() {
+    serializations.incrementAndGet();
+    return Collections.nCopies(40, "https://res.cloudinary.com/demo/video/upload/promo.mp4");
+  }
+
+  private static byte[] gunzip(byte[] body) throws IOException {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+      return in.readAllBytes();
+    }
+  }
+
+  private static ServletWebRequest request(String acceptEncoding) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles/featured");
+    if (acceptEncoding != null) {
+      request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+    }
+    return new ServletWebRequest(request);
+  }
+}
@@ -0,0 +1,69 @@
+package com.piblogchain.backend.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConditionalGetTest {
+
+  private static final CacheControl CACHE = CacheControl.noCache().cachePublic();
+
+  private final AtomicInteger serviceCalls = new AtomicInteger();
+
+  @Test
+  void matchingETagAnswersNotModifiedWithoutBuildingTheBody() {
+    String etag = ConditionalGet.etag("articles", 7);
+
+    ResponseEntity<List<String>> response = ConditionalGet.respond(request("W/\"other\", " + etag), etag, CACHE, this::articles);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    assertThat(response.getHeaders().getETag()).isEqualTo(etag);
+    assertThat(response.getHeaders().getCacheControl()).isEqualTo("no-cache, public");
+    assertThat(serviceCalls).hasValue(0);
+  }
+
+  @Test
+  void changedVersionReturnsTheTaggedBody() {
+    String stale = ConditionalGet.etag("articles", 7);
+    String current = ConditionalGet.etag("articles", 8);
+
+    ResponseEntity<List<String>> response = ConditionalGet.respond(request(stale), current, CACHE, this::articles);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody()).containsExactly("article");
+    assertThat(response.getHeaders().getETag()).isEqualTo(current);
+    assertThat(response.getHeaders().getFirst("X-Next-Cursor")).isEqualTo("next");
+    assertThat(serviceCalls).hasValue(1);
+  }
+
+  @Test
+  void errorsAreNotTagged() {
+    ResponseEntity<Object> response = ConditionalGet.respond(
+      request(null), ConditionalGet.etag("article", 1, 1), CACHE, () -> ResponseEntity.notFound().build());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    assertThat(response.getHeaders().getETag()).isNull();
+  }
+
+  private ResponseEntity<List<String>> articles() {
+    serviceCalls.incrementAndGet();
+    return ResponseEntity.ok().header("X-Next-Cursor", "next").body(List.of("article"));
+  }
+
+  private static ServletWebRequest request(String ifNoneMatch) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/articles");
+    if (ifNoneMatch != null) {
+      request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+    }
+    return new ServletWebRequest(request);
+  }
+}
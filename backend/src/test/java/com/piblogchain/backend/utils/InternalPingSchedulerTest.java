@@ -0,0 +1,62 @@
+package com.piblogchain.backend.utils;
+
+import com.piblogchain.backend.scheduling.ScheduledJobMonitor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InternalPingSchedulerTest {
+
+  private static final String PING_URL = "https://example.com/ping";
+
+  private final RestTemplate restTemplate = mock(RestTemplate.class);
+  private final TaskScheduler taskScheduler = mock(TaskScheduler.class);
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ScheduledJobMonitor jobMonitor = new ScheduledJobMonitor(meterRegistry, new StandardEnvironment());
+  private final InternalPingScheduler scheduler =
+    new InternalPingScheduler(restTemplate, taskScheduler, jobMonitor, meterRegistry, PING_URL, 180, 900, 60);
+
+  @Test
+  void eachPingReArmsTheNextOneWithAJitteredDelay() {
+    when(restTemplate.getForObject(PING_URL, String.class)).thenReturn("pong");
+
+    scheduler.ping(Instant.now());
+
+    Instant next = nextPlannedRun();
+    assertThat(next).isBetween(Instant.now().plusSeconds(179), Instant.now().plusSeconds(900));
+    assertThat(meterRegistry.get("keepalive.ping").tag("outcome", "success").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("keepalive.missed").counter().count()).isZero();
+    assertThat(jobMonitor.runs().get(InternalPingScheduler.JOB_NAME).nextRun()).isEqualTo(next);
+  }
+
+  @Test
+  void failedAndLatePingsAreRecordedAndStillReArmed() {
+    when(restTemplate.getForObject(PING_URL, String.class)).thenThrow(new ResourceAccessException("timeout"));
+
+    scheduler.ping(Instant.now().minus(Duration.ofMinutes(5)));
+
+    nextPlannedRun();
+    assertThat(meterRegistry.get("keepalive.ping").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("keepalive.missed").counter().count()).isEqualTo(1);
+    assertThat(jobMonitor.runs().get(InternalPingScheduler.JOB_NAME).failures()).isEqualTo(1);
+  }
+
+  private Instant nextPlannedRun() {
+    ArgumentCaptor<Instant> plannedAt = ArgumentCaptor.forClass(Instant.class);
+    verify(taskScheduler).schedule(any(Runnable.class), plannedAt.capture());
+    return plannedAt.getValue();
+  }
+}
@@ -0,0 +1,73 @@
+package com.piblogchain.backend.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PiJwksKeyCacheTest {
+
+  private final RestTemplate restTemplate = mock(RestTemplate.class);
+  // Keys are past max-stale as soon as they are fetched
+  private final PiJwksKeyCache cache = new PiJwksKeyCache(restTemplate, "prod", 3600, 0, 30, 10);
+
+  @AfterEach
+  void tearDown() {
+    cache.shutdown();
+  }
+
+  @Test
+  void keysPastMaxStaleAreRejectedWithoutWaitingForTheRefresh() throws Exception {
+    RSAPublicKey publicKey = (RSAPublicKey) KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic();
+    when(restTemplate.getForObject(anyString(), eq(Map.class)))
+      .thenReturn(jwks("key-1", publicKey))
+      .thenAnswer(invocation -> {
+        // JWKS endpoint down: the fetch hangs until its timeout
+        Thread.sleep(2000);
+        throw new IllegalStateException("JWKS unavailable");
+      });
+
+    PublicKey loaded = cache.getKey("key-1");
+    assertThat(loaded).isEqualTo(publicKey);
+    Thread.sleep(5);
+
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> cache.getKey("key-1")).isInstanceOf(IllegalStateException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    // A refresh is still started in the background
+    verify(restTemplate, timeout(1000).times(2)).getForObject(anyString(), eq(Map.class));
+  }
+
+  private static Map<String, Object> jwks(String kid, RSAPublicKey key) {
+    Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    return Map.of("keys", List.of(Map.of(
+      "kid", kid,
+      "kty", "RSA",
+      "n", encoder.encodeToString(unsigned(key.getModulus())),
+      "e", encoder.encodeToString(unsigned(key.getPublicExponent()))
+    )));
+  }
+
+  private static byte[] unsigned(BigInteger value) {
+    byte[] bytes = value.toByteArray();
+    return bytes[0] == 0 ? Arrays.copyOfRange(bytes, 1, bytes.length) : bytes;
+  }
+}
@@ -0,0 +1,84 @@
+package com.piblogchain.backend.utils;
+
+import com.piblogchain.backend.enums.PaymentStatus;
+import com.piblogchain.backend.models.Payment;
+import com.piblogchain.backend.models.SessionLink;
+import com.piblogchain.backend.repositories.PaymentRepository;
+import com.piblogchain.backend.repositories.SessionLinkRepository;
+import com.piblogchain.backend.services.JpaSessionLinkStore;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+class SessionCleanupTaskTest {
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private PaymentRepository paymentRepository;
+
+  @Autowired
+  private SessionLinkRepository sessionLinkRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private SessionCleanupTask sessionCleanupTask;
+
+  @BeforeEach
+  void setUp() {
+    ChunkedDeleter chunkedDeleter = new ChunkedDeleter(transactionManager, 3);
+    sessionCleanupTask = new SessionCleanupTask(
+      new JpaSessionLinkStore(sessionLinkRepository, chunkedDeleter, 10), paymentRepository, chunkedDeleter, meterRegistry);
+  }
+
+  @Test
+  void abandonedPaymentsAndExpiredLinksAreDeletedInChunks() {
+    for (int i = 0; i < 7; i++) {
+      persistPayment("abandoned-" + i, PaymentStatus.CREATED, LocalDateTime.now().minusHours(1));
+    }
+    persistPayment("recent", PaymentStatus.CREATED, LocalDateTime.now());
+    persistPayment("completed", PaymentStatus.COMPLETED, LocalDateTime.now().minusHours(1));
+
+    entityManager.persist(new SessionLink("expired"));
+    entityManager.persist(new SessionLink("live"));
+    entityManager.flush();
+    entityManager.getEntityManager()
+      .createQuery("UPDATE SessionLink s SET s.createdAt = :createdAt WHERE s.code = 'expired'")
+      .setParameter("createdAt", LocalDateTime.now().minusHours(1))
+      .executeUpdate();
+    entityManager.clear();
+
+    sessionCleanupTask.removeExpiredSessionLinksAndPendingPayments();
+
+    assertThat(paymentRepository.findAll()).extracting(Payment::getPaymentId)
+      .containsExactlyInAnyOrder("recent", "completed");
+    assertThat(sessionLinkRepository.findAll()).extracting(SessionLink::getCode).containsExactly("live");
+    assertThat(removedRows("payment").totalAmount()).isEqualTo(7);
+    assertThat(removedRows("session_links").totalAmount()).isEqualTo(1);
+  }
+
+  private void persistPayment(String paymentId, PaymentStatus status, LocalDateTime createdAt) {
+    Payment payment = new Payment();
+    payment.setPaymentId(paymentId);
+    payment.setStatus(status);
+    payment.setCreatedAt(createdAt);
+    entityManager.persist(payment);
+  }
+
+  private DistributionSummary removedRows(String table) {
+    return meterRegistry.get("cleanup.rows.removed").tag("table", table).summary();
+  }
+}
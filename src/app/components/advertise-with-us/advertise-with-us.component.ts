@@ -5,6 +5,7 @@ import { environment } from '../../environments/environment.dev';
 import { Router } from '@angular/router';
 import { PromoteType } from '../../models/PromoteType';
 import { CategoryService } from '../../services/category.service';
+import { PaymentService } from '../../services/payment.service';
 import { FormsModule } from '@angular/forms';
 import QRCode from 'qrcode';
 import { Category } from '../../models/Category.model';
@@ -33,6 +34,7 @@ export class AdvertiseWithUsComponent {
   categories: Category[] = [];
   selectedCategory: string = '';
   private categoryService = inject(CategoryService);
+  private paymentService = inject(PaymentService);
   piPriceUsd: number = 1;
   standardPricePi!: number;
   categoryPricePi!: number;
@@ -171,6 +173,7 @@ export class AdvertiseWithUsComponent {
         planType: plan,
         username: user.username,
         paymentId: fakePaymentId,
+        categorySlug: this.slotCategoryFor(plan),
       };
 
       this.http
@@ -227,6 +230,7 @@ export class AdvertiseWithUsComponent {
       planType: plan,
       username: user.username,
       paymentId: `payment-${Date.now()}`,
+      categorySlug: this.slotCategoryFor(plan),
     };
 
     this.http
@@ -284,11 +288,13 @@ export class AdvertiseWithUsComponent {
                   });
               },
               onCancel: () => {
+                this.paymentService.cancelPayment(payload.paymentId).subscribe();
                 alert('Payment was cancelled or timed out.');
                 localStorage.removeItem('pendingPaymentId');
               },
               onError: (error: any) => {
                 console.error('Payment error:', error);
+                this.paymentService.cancelPayment(payload.paymentId).subscribe();
                 alert('An error occurred while processing the payment.');
                 localStorage.removeItem('pendingPaymentId');
               },
@@ -348,6 +354,13 @@ export class AdvertiseWithUsComponent {
       });
   }
 
+  // Category whose slider slot is reserved when the payment is created
+  private slotCategoryFor(plan: PromoteType): string | null {
+    return plan === PromoteType.CATEGORY_SLIDER && this.selectedCategory
+      ? this.selectedCategory
+      : null;
+  }
+
   openConfirmModal(plan: PromoteType): void {
     this.selectedPlan = plan;
     this.showConfirmModal = true;
@@ -3,6 +3,7 @@ import { CommonModule } from '@angular/common';
 
 import { Router, RouterModule } from '@angular/router';
 import { Article } from '../../models/Article.model';
+import { ArticlePage } from '../../models/ArticlePage.model';
 import { ArticleService } from '../../services/article.service';
 
 @Component({
@@ -14,6 +15,8 @@ import { ArticleService } from '../../services/article.service';
 })
 export class ArticleListComponent implements OnInit {
   articles: Article[] = [];
+  nextCursor: string | null = null;
+  loading = false;
   message: string | null = null;
 
   constructor(private articleService: ArticleService, private router: Router) {}
@@ -23,13 +26,17 @@ export class ArticleListComponent implements OnInit {
   }
 
   loadArticles(): void {
-    this.articleService.getPublicArticles().subscribe({
-      next: (data: Article[]) => {
-        this.articles = data;
+    this.loading = true;
+    this.articleService.getPublicArticles(this.nextCursor).subscribe({
+      next: (page: ArticlePage) => {
+        this.articles = [...this.articles, ...page.articles];
+        this.nextCursor = page.nextCursor;
+        this.loading = false;
       },
       error: (err) => {
         console.error('Error loading articles:', err);
         this.message = 'Error al cargar los artículos.';
+        this.loading = false;
       },
     });
   }
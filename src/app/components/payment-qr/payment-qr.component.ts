@@ -2,6 +2,7 @@ import { Component, OnInit } from '@angular/core';
 import { ActivatedRoute, Router } from '@angular/router';
 import { HttpClient } from '@angular/common/http';
 import { environment } from '../../environments/environment.dev';
+import { PaymentService } from '../../services/payment.service';
 declare let Pi: any;
 
 @Component({
@@ -19,7 +20,8 @@ export class PaymentQrComponent implements OnInit {
   constructor(
     private route: ActivatedRoute,
     private http: HttpClient,
-    private router: Router
+    private router: Router,
+    private paymentService: PaymentService
   ) {}
 
   ngOnInit(): void {
@@ -92,10 +94,12 @@ export class PaymentQrComponent implements OnInit {
             });
         },
         onCancel: () => {
+          this.paymentService.cancelPayment(this.paymentId).subscribe();
           this.status = '⚠️ Payment was cancelled.';
         },
         onError: (error: any) => {
           console.error('Payment error', error);
+          this.paymentService.cancelPayment(this.paymentId).subscribe();
           this.status = '❌ Payment failed.';
         },
       }
@@ -343,10 +343,12 @@ export class MyArticlesComponent implements OnInit, OnDestroy {
                 });
             },
             onCancel: () => {
+              this.paymentService.cancelPayment(paymentPayload.paymentId).subscribe();
               alert('Payment was cancelled.');
               this.closePlanModal();
             },
             onError: () => {
+              this.paymentService.cancelPayment(paymentPayload.paymentId).subscribe();
               alert('Error occurred during payment.');
               this.closePlanModal();
             },
@@ -0,0 +1,7 @@
+import { Article } from './Article.model';
+
+export interface ArticlePage {
+  articles: Article[];
+  // Cursor for the following page, null on the last page
+  nextCursor: string | null;
+}
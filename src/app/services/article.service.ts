@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { map, switchMap } from 'rxjs/operators';
 import { Article } from '../models/Article.model';
+import { ArticlePage } from '../models/ArticlePage.model';
 import { environment } from '../environments/environment.dev';
 import { forkJoin, Observable, of } from 'rxjs';
 
@@ -13,21 +14,18 @@ export class ArticleService {
 
   constructor(private http: HttpClient) {}
 
-  // Get all public articles ordered by date
-  getPublicArticles(order: 'desc' | 'asc' = 'desc'): Observable<Article[]> {
-    return this.http.get<Article[]>(this.apiUrl).pipe(
-      map((articles) =>
-        articles.sort((a, b) => {
-          const dateA = new Date(a.publishDate).getTime();
-          const dateB = new Date(b.publishDate).getTime();
-          if (dateA === dateB) {
-            // If dates are equal, use id as a tie-breaker
-            return order === 'desc' ? b.id - a.id : a.id - b.id;
-          }
-          return order === 'desc' ? dateB - dateA : dateA - dateB;
-        })
-      )
-    );
+  // Get a page of public articles, newest first.
+  // The backend returns the cursor for the next page in the X-Next-Cursor header.
+  getPublicArticles(cursor: string | null = null): Observable<ArticlePage> {
+    const params: Record<string, string> = cursor ? { cursor } : {};
+    return this.http
+      .get<Article[]>(this.apiUrl, { params, observe: 'response' })
+      .pipe(
+        map((response) => ({
+          articles: response.body ?? [],
+          nextCursor: response.headers.get('X-Next-Cursor'),
+        }))
+      );
   }
 
   // Get an article by its ID
@@ -91,6 +91,18 @@ export class PaymentService {
     );
   }
 
+  // Give back the slider slot leased by a payment that was cancelled or failed
+  cancelPayment(paymentId: string): Observable<any> {
+    const user = JSON.parse(localStorage.getItem('user') || '{}');
+
+    return this.http.post(`${environment.apiUrl}/api/payments/cancel`, null, {
+      params: { paymentId },
+      headers: new HttpHeaders({
+        Authorization: `Bearer ${user.accessToken}`,
+      }),
+    });
+  }
+
   getPlanPricesInUsd() {
     return this.http.get<{ [key: string]: number }>(
       `${environment.apiUrl}/api/price`
@@ -24,10 +24,13 @@ export class SessionLinkService {
     return this.http.post<void>(`${this.baseUrl}/sync`, { code }, { headers });
   }
 
-  // 3. Obtener estado del código (opcional, por si no usas WebSocket)
-  getStatus(code: string): Observable<{ username: string } | null> {
+  // 3. Obtener estado del código (opcional, por si no usas WebSocket).
+  // Con waitSeconds > 0 el servidor responde en cuanto se sincroniza o al vencer la espera (long-poll)
+  getStatus(code: string, waitSeconds = 0): Observable<{ username: string } | null> {
     return this.http
-      .get<{ username: string }>(`${this.baseUrl}/status/${code}`)
+      .get<{ username: string }>(`${this.baseUrl}/status/${code}`, {
+        params: { wait: waitSeconds },
+      })
       .pipe(map((res) => res ?? null));
   }
 }